@@ -0,0 +1,192 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import model.Leaderboard;
+import model.QuestionStats;
+
+/**
+ * Measures the throughput of the shared game statistics under contention:
+ * recording answers in QuestionStats against a single lock around plain counters, and submitting final scores
+ * to the Leaderboard against a single lock around a sorted array, each while one more thread keeps reading
+ * (a counter, or a leaderboard snapshot).
+ *
+ * Each comparison is a JMH group of writer threads and one reader thread sharing the same statistics.
+ * The annotations run 1 writer; main() runs every group at 1, 8 and 32 writers
+ * (or e.g. java -jar jmh/target/benchmarks.jar AggregationBenchmark -tg 1,8 for a single count: JMH gives the thread
+ * counts to the methods of a group in the alphabetical order of their names, and each reader sorts before its writer).
+ * Every writer records random answers over the question sets, and submits random scores
+ * (most of which are too low to make it onto the leaderboard, like in a real game).
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregationBenchmark {
+  private final static int MAX_SCORE = 1000;
+  private final static int[] WRITER_THREAD_COUNTS = {1, 8, 32};
+
+  /**
+   * Represents plain counters behind a single lock, for comparison with QuestionStats.
+   */
+  private static class LockedStats {
+    private final long[] attempts;
+    private final long[] correct;
+
+    private LockedStats(int numOfQSets) {
+      this.attempts = new long[numOfQSets];
+      this.correct = new long[numOfQSets];
+    }
+
+    private synchronized void record(int qSetIdx, boolean wasCorrect) {
+      this.attempts[qSetIdx]++;
+      if (wasCorrect) {
+        this.correct[qSetIdx]++;
+      }
+    }
+
+    private synchronized long getAttempts(int qSetIdx) {
+      return this.attempts[qSetIdx];
+    }
+  }
+
+  /**
+   * Represents a top-K array behind a single lock, for comparison with Leaderboard.
+   */
+  private static class LockedLeaderboard {
+    private final int[] scores;
+    private int size;
+
+    private LockedLeaderboard(int capacity) {
+      this.scores = new int[capacity];
+    }
+
+    private synchronized void submit(int score) {
+      int pos = this.size;
+      while (pos > 0 && this.scores[pos - 1] < score) {
+        pos--;
+      }
+      if (pos >= this.scores.length) {
+        return;
+      }
+      int moved = Math.min(this.size, this.scores.length - 1) - pos;
+      System.arraycopy(this.scores, pos, this.scores, pos + 1, moved);
+      this.scores[pos] = score;
+      this.size = Math.min(this.size + 1, this.scores.length);
+    }
+
+    private synchronized int[] snapshot() {
+      return Arrays.copyOf(this.scores, this.size);
+    }
+  }
+
+  @Param({"1000"})
+  public int numOfQSets;
+
+  private QuestionStats stats;
+  private LockedStats lockedStats;
+  private Leaderboard leaderboard;
+  private LockedLeaderboard lockedLeaderboard;
+
+  @Setup
+  public void setup() {
+    this.stats = new QuestionStats(this.numOfQSets);
+    this.lockedStats = new LockedStats(this.numOfQSets);
+    this.leaderboard = new Leaderboard();
+    this.lockedLeaderboard = new LockedLeaderboard(Leaderboard.DEFAULT_CAPACITY);
+  }
+
+  @Benchmark
+  @Group("questionStats")
+  @GroupThreads(1)
+  public void recordAnswer() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    this.stats.record(random.nextInt(this.numOfQSets), random.nextBoolean());
+  }
+
+  @Benchmark
+  @Group("questionStats")
+  @GroupThreads(1)
+  public long readAttempts() {
+    return this.stats.getAttempts(0);
+  }
+
+  @Benchmark
+  @Group("lockedStats")
+  @GroupThreads(1)
+  public void recordAnswerLocked() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    this.lockedStats.record(random.nextInt(this.numOfQSets), random.nextBoolean());
+  }
+
+  @Benchmark
+  @Group("lockedStats")
+  @GroupThreads(1)
+  public long readAttemptsLocked() {
+    return this.lockedStats.getAttempts(0);
+  }
+
+  @Benchmark
+  @Group("leaderboard")
+  @GroupThreads(1)
+  public void submitScore() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    this.leaderboard.submit(random.nextLong(), random.nextInt(MAX_SCORE));
+  }
+
+  @Benchmark
+  @Group("leaderboard")
+  @GroupThreads(1)
+  public int snapshot() {
+    return this.leaderboard.snapshot().size();
+  }
+
+  @Benchmark
+  @Group("lockedLeaderboard")
+  @GroupThreads(1)
+  public void submitScoreLocked() {
+    this.lockedLeaderboard.submit(ThreadLocalRandom.current().nextInt(MAX_SCORE));
+  }
+
+  @Benchmark
+  @Group("lockedLeaderboard")
+  @GroupThreads(1)
+  public int snapshotLocked() {
+    return this.lockedLeaderboard.snapshot().length;
+  }
+
+  // Driver code
+  public static void main(String[] args) throws RunnerException {
+    for (int writers : WRITER_THREAD_COUNTS) {
+      //the thread counts go to the methods of each group in alphabetical order: the reader (read..., snapshot...)
+      //  sorts before the writer (record..., submit...), so the writers get the second one
+      Options options = new OptionsBuilder()
+          .include(AggregationBenchmark.class.getSimpleName())
+          .threadGroups(1, writers)
+          .build();
+      new Runner(options).run();
+    }
+  }
+}
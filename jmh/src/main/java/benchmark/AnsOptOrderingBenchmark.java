@@ -0,0 +1,79 @@
+package benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fileReader.AnsOptOrderer;
+import fileReader.SimpleXmlFileReader;
+import model.Model;
+
+/**
+ * Benchmarks ordering the answer options of every question set of a bank with the AnsOptOrderer,
+ * each question set's answer ids being added in a random order (shuffled once, in the setup).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AnsOptOrderingBenchmark {
+  @Param({"10", "10000", "1000000"})
+  public int size;
+
+  private int[][] shuffledIds;
+  private final AnsOptOrderer orderer = new AnsOptOrderer("a");
+
+  @Setup
+  public void setup() throws IOException {
+    Model model = new Model(new SimpleXmlFileReader(Banks.file(this.size, false)));
+    Random random = new Random(SyntheticBankGenerator.DEFAULT_SEED);
+    this.shuffledIds = new int[model.getNumOfQSets()][];
+    for (int q = 0; q < this.shuffledIds.length; q++) {
+      this.shuffledIds[q] = shuffledIds(random, model.getQSetAt(q).getNumOfAnsOpts());
+    }
+  }
+
+  /**
+   * Returns the ids 0 to count-1 in a random order.
+   */
+  private static int[] shuffledIds(Random random, int count) {
+    int[] ids = new int[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = i;
+    }
+    for (int i = count - 1; i > 0; i--) {
+      int swap = random.nextInt(i + 1);
+      int tmp = ids[i];
+      ids[i] = ids[swap];
+      ids[swap] = tmp;
+    }
+    return ids;
+  }
+
+  @Benchmark
+  public long orderWholeBank() {
+    long sum = 0;
+    for (int q = 0; q < this.shuffledIds.length; q++) {
+      this.orderer.reset(q);
+      for (int id : this.shuffledIds[q]) {
+        this.orderer.add(id, "answer");
+      }
+      sum += this.orderer.toOrderedArray().length;
+    }
+    return sum;
+  }
+}
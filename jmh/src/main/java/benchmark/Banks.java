@@ -0,0 +1,32 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Returns the synthetic banks the benchmarks run against (see SyntheticBankGenerator).
+ * The banks are generated into the data folder (bench_data, or the folder given by the bench.data system property)
+ * the first time they are needed, and kept there, so that later runs measure the very same files.
+ */
+final class Banks {
+  private Banks() {
+    //only static members
+  }
+
+  /**
+   * Returns the generated bank file of the given size, generating it first if it does not exist yet.
+   * @param size the number of question sets
+   * @param visual whether the question sets have images
+   * @return the bank file
+   * @throws IOException if the bank could not be generated
+   */
+  static File file(int size, boolean visual) throws IOException {
+    File dataDir = new File(System.getProperty("bench.data", "bench_data"));
+    dataDir.mkdirs();
+    File file = new File(dataDir, "bank_" + size + (visual ? "_visual" : "_textOnly") + ".xml");
+    if (!file.exists()) {
+      SyntheticBankGenerator.generate(file, size, visual, SyntheticBankGenerator.DEFAULT_SEED);
+    }
+    return file;
+  }
+}
@@ -0,0 +1,91 @@
+package benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fileReader.SimpleXmlFileReader;
+import main.Processing;
+import model.GameState;
+import model.Model;
+import model.QuestionSet;
+import model.TextSize;
+import view.ScreenLayout;
+import view.TextLayoutCache;
+
+/**
+ * Benchmarks the layout work of drawQuestionString and drawAnsOpts that does not need a canvas:
+ * wrapping a random question string (and looking up an already wrapped one, as every frame does),
+ * building the ScreenLayout of a random question, and hit testing the layout of the shown question.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class FrameLayoutBenchmark {
+  //the number of random question sets prepared (a power of two)
+  private final static int NUM_OF_SAMPLES = 1024;
+  //an approximation of the glyph widths, as there is no font without a canvas
+  private final static TextLayoutCache.Measurer MEASURER = text -> text.length() * TextSize.SMALL * 0.5f;
+
+  @Param({"10", "10000", "1000000"})
+  public int size;
+
+  private QuestionSet[] samples;
+  private TextLayoutCache textLayoutCache;
+  private QuestionSet shownQSet;
+  private ScreenLayout shownLayout;
+  private int cursor;
+
+  @Setup
+  public void setup() throws IOException {
+    Model model = new Model(new SimpleXmlFileReader(Banks.file(this.size, false)));
+    Random random = new Random(SyntheticBankGenerator.DEFAULT_SEED);
+    this.samples = new QuestionSet[NUM_OF_SAMPLES];
+    for (int i = 0; i < NUM_OF_SAMPLES; i++) {
+      this.samples[i] = model.getQSetAt(random.nextInt(model.getNumOfQSets()));
+    }
+    this.textLayoutCache = new TextLayoutCache(MEASURER);
+    this.shownQSet = this.samples[0];
+    this.shownLayout = Processing.buildLayout(GameState.QUESTION_SCREEN, this.shownQSet.getNumOfAnsOpts());
+  }
+
+  @Benchmark
+  public int wrapQuestionString() {
+    QuestionSet qSet = this.samples[this.cursor++ & (NUM_OF_SAMPLES - 1)];
+    return TextLayoutCache.wrap(qSet.getQString(), Processing.Q_TEXT_BOX_WIDTH, MEASURER).length();
+  }
+
+  @Benchmark
+  public int cachedQuestionString() {
+    return this.textLayoutCache.get(this.shownQSet.getId(), this.shownQSet.getQString(), TextSize.SMALL,
+        Processing.Q_TEXT_BOX_WIDTH).length();
+  }
+
+  @Benchmark
+  public int buildScreenLayout() {
+    QuestionSet qSet = this.samples[this.cursor++ & (NUM_OF_SAMPLES - 1)];
+    return Processing.buildLayout(GameState.QUESTION_SCREEN, qSet.getNumOfAnsOpts()).size();
+  }
+
+  @Benchmark
+  public int hitTest() {
+    //a mouse position that moves around the answer rows
+    int sample = this.cursor++;
+    return this.shownLayout.hitTest(Processing.ANS_ROW_X, Processing.ansOptRowY(sample & 3) + (sample & 63));
+  }
+}
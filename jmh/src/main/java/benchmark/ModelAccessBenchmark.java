@@ -0,0 +1,75 @@
+package benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fileReader.SimpleXmlFileReader;
+import model.GameEngine;
+import model.GameState;
+import model.Model;
+import model.Model.ModelMode;
+
+/**
+ * Benchmarks looking up random question sets with Model.getQSetAt, and playing a whole game with the GameEngine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ModelAccessBenchmark {
+  //the number of random lookups prepared (a power of two)
+  private final static int NUM_OF_SAMPLES = 1024;
+
+  @Param({"10", "10000", "1000000"})
+  public int size;
+
+  private Model model;
+  private GameEngine engine;
+  private int[] indices;
+  private int cursor;
+
+  @Setup
+  public void setup() throws IOException {
+    this.model = new Model(new SimpleXmlFileReader(Banks.file(this.size, false)));
+    this.engine = new GameEngine(this.model, false);
+    Random random = new Random(SyntheticBankGenerator.DEFAULT_SEED);
+    this.indices = new int[NUM_OF_SAMPLES];
+    for (int i = 0; i < NUM_OF_SAMPLES; i++) {
+      this.indices[i] = random.nextInt(this.model.getNumOfQSets());
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public int getQSetAt() {
+    return this.model.getQSetAt(this.indices[this.cursor++ & (NUM_OF_SAMPLES - 1)]).getId();
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int wholeGame() {
+    this.engine.chooseMode(ModelMode.SIMPLE);
+    this.engine.start();
+    while (this.engine.getState() != GameState.FINAL) {
+      this.engine.answer(this.indices[this.engine.getCurrentQuestionSetIdx() & (NUM_OF_SAMPLES - 1)] & 3);
+      this.engine.next();
+    }
+    int score = this.engine.getScore();
+    this.engine.reset();
+    return score;
+  }
+}
@@ -0,0 +1,59 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fileReader.SimpleXmlFileReader;
+import fileReader.VisualXmlFileReader;
+import fileReader.XmlFileReader;
+
+/**
+ * Benchmarks parsing a whole bank with SimpleXmlFileReader and VisualXmlFileReader (setup and go()).
+ * The largest banks need a large heap for the DOM readers, hence the -Xmx8g of the forked JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ReaderBenchmark {
+  @Param({"10", "10000", "1000000"})
+  public int size;
+
+  private File textOnlyFile;
+  private File visualFile;
+
+  @Setup
+  public void setup() throws IOException {
+    this.textOnlyFile = Banks.file(this.size, false);
+    this.visualFile = Banks.file(this.size, true);
+  }
+
+  @Benchmark
+  public int simpleXmlFileReader() {
+    XmlFileReader reader = new SimpleXmlFileReader(this.textOnlyFile);
+    reader.go();
+    return reader.getResultingQuestionSetList().size();
+  }
+
+  @Benchmark
+  public int visualXmlFileReader() {
+    XmlFileReader reader = new VisualXmlFileReader(this.visualFile);
+    reader.go();
+    return reader.getResultingQuestionSetList().size();
+  }
+}
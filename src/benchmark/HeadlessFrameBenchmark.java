@@ -0,0 +1,368 @@
+package benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import main.Processing;
+import model.GameEngine;
+import model.GameState;
+import model.Model.ModelMode;
+import processing.awt.PGraphicsJava2D;
+import processing.core.PGraphics;
+import view.FrameProfiler;
+import view.FrameProfiler.Stage;
+import view.ScreenLayout;
+import view.ScreenLayout.Element;
+
+/**
+ * Benchmarks Processing.draw() without a display: the sketch draws into an offscreen Java2D graphics instead of
+ * a window (and so do its offscreen layers, see HeadlessGraphics), and is played through every screen of a game (the intro screens, a question screen, the correct,
+ * incorrect and reset pop ups, and the final screen) by clicking its buttons, for both banks in src/resources
+ * (the visual one in both modes).
+ *
+ * On each screen, the mouse positions of a trace are replayed, one per frame, as a player moving over the screen
+ * would, and the frames per second, the median time of each stage (see FrameProfiler) and the bytes allocated
+ * per frame are reported. The trace is either recorded (a file of "x,y" lines, in canvas coordinates),
+ * or a sweep over the center of every button and answer option row of the screen, and off them.
+ *
+ * A PNG snapshot of every screen can be written (with the mouse off every element), and compared with
+ * the snapshots of an earlier run, so that a rendering optimization can be checked for pixel regressions.
+ * The text sizes are switched with the fonts of a FontManager, unless told otherwise, so that both can be compared.
+ * Usage: HeadlessFrameBenchmark [frames per screen (default 300)] [mouse trace file, or "sweep" (default sweep)]
+ *     [snapshot folder, or "none" (default none)] [baseline snapshot folder to compare with (default none)]
+ *     [whether to use the font manager (default Processing.USE_FONT_MANAGER)]
+ */
+public class HeadlessFrameBenchmark {
+  //the banks in src/resources
+  private final static String[] FILE_NAMES = {"dataSet01_visual", "dataSet02_textOnly"};
+  //the longest time to wait for a bank or its images to load
+  private final static long LOAD_TIMEOUT_NANOS = 60_000_000_000L;
+  //a mouse position off every element of every screen
+  private final static int OFF_X = 0;
+  private final static int OFF_Y = 0;
+
+  private final Processing sketch;
+  private final PGraphics canvas;
+  private final String name;
+  private final int framesPerScreen;
+  private final int[][] trace;
+  private final File snapshotDir;
+  private final File baselineDir;
+  private int numOfRegressions;
+
+  /**
+   * Represents a Java2D graphics that draws into a plain BufferedImage. PGraphicsJava2D asks the screen device for
+   * an image compatible with it, which throws a HeadlessException when there is no display.
+   * Public, with a no-argument constructor, so that PApplet.createGraphics() can create it by its class name.
+   */
+  public static class HeadlessGraphics extends PGraphicsJava2D {
+    @Override
+    public Graphics2D checkImage() {
+      int imageWidth = this.width * this.pixelDensity;
+      int imageHeight = this.height * this.pixelDensity;
+      if (this.image == null || ((BufferedImage) this.image).getWidth() != imageWidth
+          || ((BufferedImage) this.image).getHeight() != imageHeight) {
+        this.image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+      }
+      return (Graphics2D) this.image.getGraphics();
+    }
+  }
+
+  /**
+   * Constructs the sketch of the given bank, drawing into a new offscreen canvas.
+   */
+  private HeadlessFrameBenchmark(String fileName, ModelMode mode, int framesPerScreen, int[][] trace,
+      File snapshotDir, File baselineDir, boolean useFontManager) {
+    this.sketch = new Processing(fileName, true, useFontManager) {
+      //the offscreen layers (see LayerCache) cannot ask the screen device for their images either
+      @Override
+      public PGraphics createGraphics(int width, int height) {
+        return createGraphics(width, height, HeadlessGraphics.class.getName());
+      }
+    };
+    this.name = fileName + "_" + mode;
+    this.framesPerScreen = framesPerScreen;
+    this.trace = trace;
+    this.snapshotDir = snapshotDir;
+    this.baselineDir = baselineDir;
+    //what PApplet would do for a window, without one
+    this.canvas = new HeadlessGraphics();
+    this.canvas.setParent(this.sketch);
+    this.canvas.setPrimary(false);
+    this.canvas.setSize(Processing.CANVAS_X, Processing.CANVAS_Y);
+    this.sketch.g = this.canvas;
+    this.sketch.width = Processing.CANVAS_X;
+    this.sketch.height = Processing.CANVAS_Y;
+    this.sketch.pixelWidth = Processing.CANVAS_X;
+    this.sketch.pixelHeight = Processing.CANVAS_Y;
+    //PApplet.runSketch() would set the sketch path (the working directory), which loadImage() needs
+    this.sketch.sketchPath();
+  }
+
+  // Driver code
+  public static void main(String[] args) throws IOException {
+    System.setProperty("java.awt.headless", "true");
+    int framesPerScreen = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+    int[][] trace = args.length > 1 && !args[1].equals("sweep") ? readTrace(new File(args[1])) : null;
+    File snapshotDir = args.length > 2 && !args[2].equals("none") ? new File(args[2]) : null;
+    File baselineDir = args.length > 3 && !args[3].equals("none") ? new File(args[3]) : null;
+    boolean useFontManager = args.length > 4 ? Boolean.parseBoolean(args[4]) : Processing.USE_FONT_MANAGER;
+    if (snapshotDir != null) {
+      snapshotDir.mkdirs();
+    }
+
+    int numOfRegressions = 0;
+    for (String fileName : FILE_NAMES) {
+      List<ModelMode> modes = new ArrayList<>();
+      modes.add(ModelMode.SIMPLE);
+      if (!fileName.contains("textOnly")) {
+        modes.add(ModelMode.VISUAL);
+      }
+      for (ModelMode mode : modes) {
+        System.out.println("---- " + fileName + " (" + mode + ") ----");
+        HeadlessFrameBenchmark benchmark =
+            new HeadlessFrameBenchmark(fileName, mode, framesPerScreen, trace, snapshotDir, baselineDir, useFontManager);
+        benchmark.playGame(mode);
+        numOfRegressions += benchmark.numOfRegressions;
+      }
+    }
+    if (baselineDir != null) {
+      System.out.println(numOfRegressions == 0 ? "no pixel regressions"
+          : "ERROR! " + numOfRegressions + " screen(s) differ from the baseline snapshots");
+    }
+  }
+
+  /**
+   * Reads a recorded mouse trace: one "x,y" line per frame (empty lines and lines starting with # are skipped).
+   */
+  private static int[][] readTrace(File file) throws IOException {
+    List<int[]> positions = new ArrayList<>();
+    for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] xy = line.split("[,\\s]+");
+      positions.add(new int[] {Integer.parseInt(xy[0]), Integer.parseInt(xy[1])});
+    }
+    if (positions.isEmpty()) {
+      throw new IllegalArgumentException("the mouse trace " + file + " is empty");
+    }
+    return positions.toArray(new int[0][]);
+  }
+
+  /**
+   * Plays one game in the given mode, profiling every screen on the way.
+   */
+  private void playGame(ModelMode mode) throws IOException {
+    this.canvas.beginDraw();
+    this.sketch.setup();
+    this.canvas.endDraw();
+    GameEngine engine = waitUntilReady();
+
+    profileScreen();
+    click(mode == ModelMode.SIMPLE ? Element.SIMPLE_BUTTON : Element.VISUAL_BUTTON);
+    //the images are only loaded once the VISUAL mode is chosen
+    waitUntilReady();
+    profileScreen();
+    click(Element.START_BUTTON);
+    waitUntilReady();
+    profileScreen();
+    clickAnsOpt(engine.getCurrentQSet().getCorrectAnsOptIdx());
+    profileScreen();
+    click(Element.NEXT_BUTTON);
+    if (engine.getState() == GameState.QUESTION_SCREEN) {
+      click(Element.RESET_BUTTON);
+      profileScreen();
+      click(Element.RESET_CANCEL_BUTTON);
+      clickAnsOpt((engine.getCurrentQSet().getCorrectAnsOptIdx() + 1) % engine.getCurrentQSet().getNumOfAnsOpts());
+      profileScreen();
+      click(Element.NEXT_BUTTON);
+    }
+    //answer the rest of the questions
+    while (engine.getState() == GameState.QUESTION_SCREEN) {
+      clickAnsOpt(engine.getCurrentQSet().getCorrectAnsOptIdx());
+      click(Element.NEXT_BUTTON);
+    }
+    waitUntilReady();
+    profileScreen();
+  }
+
+  /**
+   * Draws one frame with the mouse at the given position, as PApplet would: the mouse event first, then draw().
+   */
+  private void drawFrame(int x, int y) {
+    this.sketch.pmouseX = this.sketch.mouseX;
+    this.sketch.pmouseY = this.sketch.mouseY;
+    this.sketch.mouseX = x;
+    this.sketch.mouseY = y;
+    this.canvas.beginDraw();
+    this.sketch.mouseMoved();
+    this.sketch.draw();
+    this.canvas.endDraw();
+  }
+
+  /**
+   * Draws frames with the mouse off every element, until the bank and the images are loaded and handed over.
+   * @return the game, once loaded
+   * @throws IllegalStateException if loading failed, or takes longer than LOAD_TIMEOUT_NANOS
+   */
+  private GameEngine waitUntilReady() {
+    long start = System.nanoTime();
+    do {
+      drawFrame(OFF_X, OFF_Y);
+      if (this.sketch.hasLoadFailed()) {
+        throw new IllegalStateException(this.name + " could not be loaded");
+      }
+      if (System.nanoTime() - start > LOAD_TIMEOUT_NANOS) {
+        throw new IllegalStateException(this.name + " did not load within "
+            + (LOAD_TIMEOUT_NANOS / 1_000_000_000L) + " s");
+      }
+      Thread.yield();
+    } while (this.sketch.isBusy());
+    return this.sketch.getEngine();
+  }
+
+  /**
+   * Returns the layout of the current screen.
+   */
+  private ScreenLayout currentLayout() {
+    GameEngine engine = this.sketch.getEngine();
+    int numOfAnsOpts = engine.getState() == GameState.QUESTION_SCREEN ? engine.getCurrentQSet().getNumOfAnsOpts() : 0;
+    return Processing.buildLayout(engine.getState(), numOfAnsOpts);
+  }
+
+  /**
+   * Moves the mouse onto the given button of the current screen, and clicks it.
+   * @throws IllegalStateException if the button is not on the current screen
+   */
+  private void click(Element button) {
+    ScreenLayout layout = currentLayout();
+    int area = layout.find(button);
+    if (area == ScreenLayout.NONE) {
+      throw new IllegalStateException(button + " is not on the " + this.sketch.getEngine().getState() + " screen");
+    }
+    clickArea(layout, area);
+  }
+
+  /**
+   * Moves the mouse onto the answer option row at the given index of the current screen, and clicks it.
+   */
+  private void clickAnsOpt(int ansOptIdx) {
+    ScreenLayout layout = currentLayout();
+    for (int area = 0; area < layout.size(); area++) {
+      if (layout.is(area, Element.ANS_OPT_ROW) && layout.getAnsOptIdx(area) == ansOptIdx) {
+        clickArea(layout, area);
+        return;
+      }
+    }
+    throw new IllegalStateException("answer option " + ansOptIdx + " is not on the screen");
+  }
+
+  private void clickArea(ScreenLayout layout, int area) {
+    int x = (int) layout.getCenterX(area);
+    int y = (int) layout.getCenterY(area);
+    drawFrame(x, y);
+    this.sketch.mouseClicked();
+    drawFrame(x, y);
+  }
+
+  /**
+   * Returns the mouse positions replayed on the current screen: the recorded trace, or a sweep over the center of
+   * every area of the screen's layout, each one followed by a position off every element.
+   */
+  private int[][] screenTrace() {
+    if (this.trace != null) {
+      return this.trace;
+    }
+    ScreenLayout layout = currentLayout();
+    int[][] sweep = new int[Math.max(1, layout.size() * 2)][];
+    sweep[0] = new int[] {OFF_X, OFF_Y};
+    for (int area = 0; area < layout.size(); area++) {
+      sweep[area * 2] = new int[] {(int) layout.getCenterX(area), (int) layout.getCenterY(area)};
+      sweep[area * 2 + 1] = new int[] {OFF_X, OFF_Y};
+    }
+    return sweep;
+  }
+
+  /**
+   * Replays the mouse trace over the current screen for framesPerScreen frames, and prints the frames per second,
+   * the median stage times and the bytes allocated per frame. Then takes its snapshot.
+   */
+  private void profileScreen() throws IOException {
+    GameState state = this.sketch.getEngine().getState();
+    int[][] positions = screenTrace();
+    FrameProfiler profiler = this.sketch.getFrameProfiler();
+    profiler.reset();
+    long start = System.nanoTime();
+    for (int frame = 0; frame < this.framesPerScreen; frame++) {
+      int[] position = positions[frame % positions.length];
+      drawFrame(position[0], position[1]);
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    StringBuilder stages = new StringBuilder();
+    for (Stage stage : Stage.values()) {
+      long p50 = profiler.getStagePercentileNanos(stage, 50);
+      if (p50 > 0) {
+        stages.append(String.format(" %s %.3f ms", stage, p50 / 1e6));
+      }
+    }
+    long bytes = profiler.getAllocatedBytesPercentile(50);
+    System.out.printf("%-16s %9.1f fps  frame p50 %.3f ms p95 %.3f ms  %s B/frame%n",
+        state, this.framesPerScreen / seconds, profiler.getFramePercentileNanos(50) / 1e6,
+        profiler.getFramePercentileNanos(95) / 1e6, bytes < 0 ? "n/a" : Long.toString(bytes));
+    if (stages.length() > 0) {
+      System.out.println("  stages (p50):" + stages);
+    }
+    snapshot(state);
+  }
+
+  /**
+   * Writes the snapshot of the current screen (with the mouse off every element),
+   * and compares it with the baseline snapshot of the same screen, if there is one.
+   */
+  private void snapshot(GameState state) throws IOException {
+    if (this.snapshotDir == null && this.baselineDir == null) {
+      return;
+    }
+    drawFrame(OFF_X, OFF_Y);
+    String fileName = this.name + "_" + state + ".png";
+    if (this.snapshotDir != null) {
+      this.canvas.save(new File(this.snapshotDir, fileName).getAbsolutePath());
+    }
+    File baselineFile = this.baselineDir == null ? null : new File(this.baselineDir, fileName);
+    if (baselineFile == null || !baselineFile.exists()) {
+      return;
+    }
+    BufferedImage baseline = ImageIO.read(baselineFile);
+    this.canvas.loadPixels();
+    if (baseline.getWidth() != this.canvas.width || baseline.getHeight() != this.canvas.height) {
+      System.out.println("ERROR! " + fileName + " is " + baseline.getWidth() + "x" + baseline.getHeight()
+          + " in the baseline");
+      this.numOfRegressions++;
+      return;
+    }
+    int numOfDiffs = 0;
+    for (int y = 0; y < baseline.getHeight(); y++) {
+      for (int x = 0; x < baseline.getWidth(); x++) {
+        //the alpha channel is not compared, as the screens are opaque
+        if (((baseline.getRGB(x, y) ^ this.canvas.pixels[y * this.canvas.width + x]) & 0xFFFFFF) != 0) {
+          numOfDiffs++;
+        }
+      }
+    }
+    if (numOfDiffs > 0) {
+      System.out.println("ERROR! " + fileName + " differs from the baseline in " + numOfDiffs + " pixels");
+      this.numOfRegressions++;
+    }
+  }
+}
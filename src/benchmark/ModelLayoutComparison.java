@@ -0,0 +1,156 @@
+package benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import model.AnsOpt;
+import model.AnsOptString;
+import model.ArrayQuestionBank;
+import model.QuestionSet;
+import model.QuestionSetSimple;
+
+/**
+ * Compares the heap use and the lookup cost of the array-backed model (ArrayQuestionBank of QuestionSetSimple
+ * with AnsOpt arrays) against the previous layout (a HashMap of question sets, each with a HashMap of answer options),
+ * on a synthetic bank of 100k question sets.
+ *
+ * Both layouts share the very same strings and AnsOpt objects, so the heap difference is only the cost of the containers.
+ * Run with a fixed heap (e.g. -Xms1g -Xmx1g) for stable numbers.
+ * Usage: ModelLayoutComparison [numOfQuestionSets] [numOfAnsOpts]
+ */
+public class ModelLayoutComparison {
+  private final static int WARMUP_ROUNDS = 5;
+  private final static int MEASURED_ROUNDS = 10;
+
+  /**
+   * Represents a question set in the previous layout, with its answer options in an indexed HashMap.
+   */
+  private static class MapLayoutQuestionSet {
+    private final int id;
+    private final String qString;
+    private final Map<Integer, AnsOpt> mapOfAnsOpts;
+    private final int correctAnsOptIdx;
+
+    private MapLayoutQuestionSet(int id, String qString, Map<Integer, AnsOpt> mapOfAnsOpts, int correctAnsOptIdx) {
+      this.id = id;
+      this.qString = qString;
+      this.mapOfAnsOpts = mapOfAnsOpts;
+      this.correctAnsOptIdx = correctAnsOptIdx;
+    }
+  }
+
+  private ModelLayoutComparison() {
+    //only static members
+  }
+
+  // Driver code
+  public static void main(String[] args) {
+    int numOfQuestionSets = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+    int numOfAnsOpts = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+    //the shared content
+    String[] qStrings = new String[numOfQuestionSets];
+    AnsOpt[][] ansOpts = new AnsOpt[numOfQuestionSets][numOfAnsOpts];
+    for (int q = 0; q < numOfQuestionSets; q++) {
+      qStrings[q] = "Question number " + q + "?";
+      for (int a = 0; a < numOfAnsOpts; a++) {
+        ansOpts[q][a] = new AnsOptString("Answer " + a + " of " + q);
+      }
+    }
+
+    //previous layout
+    long before = usedHeap();
+    Map<Integer, MapLayoutQuestionSet> mapLayout = new HashMap<>();
+    for (int q = 0; q < numOfQuestionSets; q++) {
+      Map<Integer, AnsOpt> mapOfAnsOpts = new HashMap<>();
+      for (int a = 0; a < numOfAnsOpts; a++) {
+        mapOfAnsOpts.put(a, ansOpts[q][a]);
+      }
+      mapLayout.put(q, new MapLayoutQuestionSet(q, qStrings[q], mapOfAnsOpts, 0));
+    }
+    long mapBytes = usedHeap() - before;
+
+    //array layout
+    before = usedHeap();
+    QuestionSet[] questionSets = new QuestionSet[numOfQuestionSets];
+    for (int q = 0; q < numOfQuestionSets; q++) {
+      questionSets[q] = new QuestionSetSimple(q, qStrings[q], ansOpts[q].clone(), 0);
+    }
+    ArrayQuestionBank arrayLayout = new ArrayQuestionBank(questionSets);
+    long arrayBytes = usedHeap() - before;
+
+    System.out.println(numOfQuestionSets + " question sets, " + numOfAnsOpts + " answer options each");
+    System.out.println("HashMap layout: " + mapBytes + " bytes (" + (mapBytes / numOfQuestionSets) + " per question set)");
+    System.out.println("array layout:   " + arrayBytes + " bytes (" + (arrayBytes / numOfQuestionSets) + " per question set)");
+
+    //lookup cost: visit every answer option of every question set, like a frame of drawAnsOpts does for one
+    long checksum = 0;
+    for (int r = 0; r < WARMUP_ROUNDS; r++) {
+      checksum += visitMapLayout(mapLayout, numOfQuestionSets) + visitArrayLayout(arrayLayout);
+    }
+    long mapNanos = 0;
+    long arrayNanos = 0;
+    for (int r = 0; r < MEASURED_ROUNDS; r++) {
+      long start = System.nanoTime();
+      checksum += visitMapLayout(mapLayout, numOfQuestionSets);
+      mapNanos += System.nanoTime() - start;
+      start = System.nanoTime();
+      checksum += visitArrayLayout(arrayLayout);
+      arrayNanos += System.nanoTime() - start;
+    }
+    long lookups = (long) MEASURED_ROUNDS * numOfQuestionSets * (numOfAnsOpts + 1);
+    System.out.printf("HashMap layout: %.2f ns per lookup%n", (double) mapNanos / lookups);
+    System.out.printf("array layout:   %.2f ns per lookup%n", (double) arrayNanos / lookups);
+    System.out.println("(checksum " + checksum + ")");
+  }
+
+  /**
+   * Looks up every question set, and every answer option, in the previous layout.
+   * @return a checksum, so that the lookups cannot be optimized away
+   */
+  private static long visitMapLayout(Map<Integer, MapLayoutQuestionSet> mapLayout, int numOfQuestionSets) {
+    long sum = 0;
+    for (int q = 0; q < numOfQuestionSets; q++) {
+      MapLayoutQuestionSet qSet = mapLayout.get(q);
+      for (int a = 0; a < qSet.mapOfAnsOpts.size(); a++) {
+        sum += qSet.mapOfAnsOpts.get(a).getAnsOptString().length();
+      }
+      sum += qSet.correctAnsOptIdx + qSet.id;
+    }
+    return sum;
+  }
+
+  /**
+   * Looks up every question set, and every answer option, in the array layout.
+   * @return a checksum, so that the lookups cannot be optimized away
+   */
+  private static long visitArrayLayout(ArrayQuestionBank arrayLayout) {
+    long sum = 0;
+    for (int q = 0; q < arrayLayout.size(); q++) {
+      QuestionSet qSet = arrayLayout.getQSetAt(q);
+      for (int a = 0; a < qSet.getNumOfAnsOpts(); a++) {
+        sum += qSet.getAnsOptAt(a).getAnsOptString().length();
+      }
+      sum += qSet.getCorrectAnsOptIdx() + qSet.getId();
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the number of bytes used on the heap, after asking for a few garbage collections.
+   * @return the used heap, in bytes
+   */
+  static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      try {
+        Thread.sleep(50);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,106 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import fileReader.SimpleXmlFileReader;
+import model.ArrayQuestionBank;
+import model.GameEngine;
+import model.GameSessions;
+import model.GameState;
+import model.Model.ModelMode;
+import model.QuestionBank;
+
+/**
+ * Opens many game sessions on one shared question bank and prints the memory curve:
+ * the heap used after every step of sessions, and the number of bytes per session.
+ * Then plays every session to its final screen from several threads at once, on the very same bank.
+ *
+ * The bank is a synthetic one (see SyntheticBankGenerator), read once.
+ * Run with a fixed heap (e.g. -Xms1g -Xmx1g) for stable numbers.
+ * Usage: SessionLoadTest [numOfSessions (default 100000)] [numOfQuestionSets (default 1000)] [numOfThreads]
+ */
+public class SessionLoadTest {
+  private final static int NUM_OF_STEPS = 10;
+
+  private SessionLoadTest() {
+    //only static members
+  }
+
+  // Driver code
+  public static void main(String[] args) throws Exception {
+    int numOfSessions = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+    int numOfQuestionSets = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    int numOfThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+    //the shared bank, read once
+    long before = ModelLayoutComparison.usedHeap();
+    QuestionBank bank = ArrayQuestionBank.read(new SimpleXmlFileReader(generateBank(numOfQuestionSets)));
+    long bankBytes = ModelLayoutComparison.usedHeap() - before;
+    System.out.println("question bank: " + bank.size() + " question sets, " + bankBytes + " bytes");
+
+    //the memory curve
+    GameSessions sessions = new GameSessions(bank, false);
+    before = ModelLayoutComparison.usedHeap();
+    System.out.println("sessions,usedBytes,bytesPerSession");
+    for (int step = 1; step <= NUM_OF_STEPS; step++) {
+      int target = (int) ((long) numOfSessions * step / NUM_OF_STEPS);
+      while (sessions.size() < target) {
+        sessions.open();
+      }
+      long used = ModelLayoutComparison.usedHeap() - before;
+      System.out.println(sessions.size() + "," + used + "," + (used / sessions.size()));
+    }
+
+    //every session played to the end, from several threads at once
+    ExecutorService executor = Executors.newFixedThreadPool(numOfThreads);
+    List<Future<Long>> answers = new ArrayList<>();
+    long start = System.nanoTime();
+    for (int t = 0; t < numOfThreads; t++) {
+      int thread = t;
+      answers.add(executor.submit(() -> playSessions(sessions, thread, numOfThreads)));
+    }
+    long totalAnswers = 0;
+    for (Future<Long> future : answers) {
+      totalAnswers += future.get();
+    }
+    long nanos = System.nanoTime() - start;
+    executor.shutdown();
+    System.out.printf("%d answers on %d threads in %.1f ms (%.1f ns per answer)%n",
+        totalAnswers, numOfThreads, nanos / 1e6, (double) nanos / totalAnswers);
+  }
+
+  /**
+   * Writes a synthetic bank of the given size to a temporary file.
+   */
+  private static File generateBank(int numOfQuestionSets) throws IOException {
+    File file = File.createTempFile("sessionLoadTest", ".xml");
+    file.deleteOnExit();
+    SyntheticBankGenerator.generate(file, numOfQuestionSets, false, SyntheticBankGenerator.DEFAULT_SEED);
+    return file;
+  }
+
+  /**
+   * Plays every session whose id belongs to the given thread to its final screen.
+   * @return the number of answers given
+   */
+  private static long playSessions(GameSessions sessions, int thread, int numOfThreads) {
+    long answers = 0;
+    for (long id = thread; id < sessions.size(); id += numOfThreads) {
+      GameEngine engine = sessions.get(id);
+      engine.chooseMode(ModelMode.SIMPLE);
+      engine.start();
+      while (engine.getState() != GameState.FINAL) {
+        engine.answer((int) ((id + engine.getCurrentQuestionSetIdx()) % engine.getCurrentQSet().getNumOfAnsOpts()));
+        engine.next();
+        answers++;
+      }
+    }
+    return answers;
+  }
+}
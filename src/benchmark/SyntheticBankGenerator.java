@@ -0,0 +1,140 @@
+package benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Generates synthetic question xml files in the same format as the files in src/resources,
+ * so that benchmarks can be run against banks of any size and reproduced exactly.
+ *
+ * Like the real files, the a, aImg and qImg children of each questionSet are written in a shuffled order.
+ * The shuffling only depends on the given seed, so the same arguments always generate the same file.
+ * Usage: SyntheticBankGenerator numOfQuestionSets outFile [textOnly|visual] [seed]
+ */
+public class SyntheticBankGenerator {
+  public final static long DEFAULT_SEED = 42L;
+  public final static int NUM_OF_ANS_OPTS = 4;
+  //images that exist in src/resources/dataSet01_visual_images, so that generated visual banks can be drawn
+  private final static String[] IMAGE_NAMES = new String[]{"one.jpg", "two.jpg", "three.jpg", "four.jpg",
+      "five.jpg", "six.jpg", "red.jpg", "blue.jpg", "green.jpg", "yellow.jpg", "brown.jpg", "france.jpg"};
+  private final static String[] WORDS = new String[]{"which", "planet", "river", "came", "first", "largest",
+      "country", "color", "invented", "famous", "painting", "ocean", "mountain", "language", "number", "the"};
+
+  private SyntheticBankGenerator() {
+    //only static members
+  }
+
+  /**
+   * Writes a synthetic question xml file.
+   * @param file the file to write
+   * @param numOfQuestionSets the number of questionSet elements
+   * @param visual whether to write qImg and aImg elements
+   * @param seed the seed of the random content and shuffling
+   * @throws IOException if the file cannot be written
+   */
+  public static void generate(File file, int numOfQuestionSets, boolean visual, long seed) throws IOException {
+    Random random = new Random(seed);
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+      XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+      xml.writeStartDocument("UTF-8", "1.0");
+      xml.writeCharacters("\n");
+      xml.writeStartElement("TriviaQuestions");
+      for (int q = 0; q < numOfQuestionSets; q++) {
+        xml.writeCharacters("\n\t");
+        xml.writeStartElement("questionSet");
+        xml.writeAttribute("id", Integer.toString(q));
+        writeElement(xml, "q", null, sentence(random, 4 + random.nextInt(12)) + "?");
+
+        //children after the question, in a shuffled order: answers, answer images and the question image
+        int numOfChildren = visual ? (2 * NUM_OF_ANS_OPTS) + 1 : NUM_OF_ANS_OPTS;
+        int[] order = new int[numOfChildren];
+        for (int c = 0; c < numOfChildren; c++) {
+          order[c] = c;
+        }
+        for (int c = numOfChildren - 1; c > 0; c--) {
+          int swap = random.nextInt(c + 1);
+          int tmp = order[c];
+          order[c] = order[swap];
+          order[swap] = tmp;
+        }
+        for (int c : order) {
+          if (c < NUM_OF_ANS_OPTS) {
+            writeElement(xml, "a", Integer.toString(c), sentence(random, 1 + random.nextInt(3)));
+          }
+          else if (c < 2 * NUM_OF_ANS_OPTS) {
+            int aOid = c - NUM_OF_ANS_OPTS;
+            writeElement(xml, "aImg", Integer.toString(aOid), IMAGE_NAMES[(q + aOid) % IMAGE_NAMES.length]);
+          }
+          else {
+            writeElement(xml, "qImg", null, "q" + (q % 12) + ".jpg");
+          }
+        }
+        writeElement(xml, "correct", null, Integer.toString(random.nextInt(NUM_OF_ANS_OPTS)));
+        xml.writeCharacters("\n\t");
+        xml.writeEndElement();
+      }
+      xml.writeCharacters("\n");
+      xml.writeEndElement();
+      xml.writeEndDocument();
+      xml.close();
+    }
+    catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Writes an element containing only text, on its own indented line.
+   */
+  private static void writeElement(XMLStreamWriter xml, String tagName, String id, String text) throws XMLStreamException {
+    xml.writeCharacters("\n\t\t");
+    xml.writeStartElement(tagName);
+    if (id != null) {
+      xml.writeAttribute("id", id);
+    }
+    xml.writeCharacters(text);
+    xml.writeEndElement();
+  }
+
+  /**
+   * Returns a sentence made of the given number of random words, starting with a capital letter.
+   */
+  private static String sentence(Random random, int numOfWords) {
+    StringBuilder sb = new StringBuilder();
+    for (int w = 0; w < numOfWords; w++) {
+      if (w > 0) {
+        sb.append(' ');
+      }
+      sb.append(WORDS[random.nextInt(WORDS.length)]);
+    }
+    sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+    return sb.toString();
+  }
+
+  // Driver code
+  public static void main(String[] args) {
+    if (args.length < 2) {
+      System.out.println("usage: SyntheticBankGenerator numOfQuestionSets outFile [textOnly|visual] [seed]");
+      return;
+    }
+    int numOfQuestionSets = Integer.parseInt(args[0]);
+    File file = new File(args[1]);
+    boolean visual = args.length < 3 || !args[2].equals("textOnly");
+    long seed = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+    try {
+      generate(file, numOfQuestionSets, visual, seed);
+      System.out.println("generated " + numOfQuestionSets + " question sets to " + file);
+    }
+    catch (IOException e) {
+      System.out.println("ERROR! " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package fileReader;
+
+import java.util.Arrays;
+
+/**
+ * Sorts the answer option elements (a or aImg tags) of one questionSet element by their id attribute.
+ * The elements can be added in any order; toOrderedArray() then places each of them at the index of its id
+ * in a single pass, so the sorting takes linear time in the number of answer options.
+ *
+ * The ids of a questionSet's elements must be exactly 0 to n-1 (where n is the number of elements).
+ * A missing, duplicated, out-of-range or non-numeric id is reported with an IllegalArgumentException
+ * naming the question set, the tag and the id.
+ */
+public class AnsOptOrderer {
+  private final String tagName;
+  private int qSetID;
+  private int[] ids;
+  private String[] values;
+  private int count;
+
+  /**
+   * Constructs an AnsOptOrderer for the elements with the given tag name.
+   * @param tagName the tag name of the elements (used in the error messages)
+   */
+  public AnsOptOrderer(String tagName) {
+    this(tagName, 8);
+  }
+
+  /**
+   * Constructs an AnsOptOrderer for the elements with the given tag name, with room for the given
+   * number of elements before having to grow.
+   * @param tagName the tag name of the elements (used in the error messages)
+   * @param expectedCount the expected number of elements
+   */
+  public AnsOptOrderer(String tagName, int expectedCount) {
+    this.tagName = tagName;
+    this.ids = new int[Math.max(expectedCount, 1)];
+    this.values = new String[Math.max(expectedCount, 1)];
+    this.count = 0;
+  }
+
+  /**
+   * Removes all the added elements, so that this orderer can be reused for the given question set.
+   * @param qSetID the id of the question set the next elements belong to (used in the error messages)
+   */
+  public void reset(int qSetID) {
+    this.qSetID = qSetID;
+    Arrays.fill(this.values, 0, this.count, null);
+    this.count = 0;
+  }
+
+  /**
+   * Adds an element with the given id attribute and content.
+   * @param idStr the id attribute of the element, as written in the xml file
+   * @param value the text content of the element
+   * @throws IllegalArgumentException if the id is not a number
+   */
+  public void add(String idStr, String value) {
+    int id;
+    try {
+      id = Integer.parseInt(idStr.trim());
+    }
+    catch (NumberFormatException | NullPointerException e) {
+      throw new IllegalArgumentException(this.describe() + " has a non-numeric id \"" + idStr + "\"");
+    }
+    this.add(id, value);
+  }
+
+  /**
+   * Adds an element with the given id and content.
+   * @param id the id of the element
+   * @param value the text content of the element
+   */
+  public void add(int id, String value) {
+    if (this.count == this.ids.length) {
+      this.ids = Arrays.copyOf(this.ids, this.count * 2);
+      this.values = Arrays.copyOf(this.values, this.count * 2);
+    }
+    this.ids[this.count] = id;
+    this.values[this.count] = value;
+    this.count++;
+  }
+
+  /**
+   * Returns the number of elements added since the last reset.
+   * @return the number of elements
+   */
+  public int size() {
+    return this.count;
+  }
+
+  /**
+   * Returns the contents of the added elements, ordered by their ids.
+   * @return an array where the content of the element with id i is at index i
+   * @throws IllegalArgumentException if an id is out of range, duplicated or missing
+   */
+  public String[] toOrderedArray() {
+    String[] ordered = new String[this.count];
+    for (int i = 0; i < this.count; i++) {
+      int id = this.ids[i];
+      if (id < 0 || id >= this.count) {
+        throw new IllegalArgumentException(this.describe() + " id " + id + " is out of range (the ids of "
+            + this.count + " elements must be 0 to " + (this.count - 1) + ", with no gaps)");
+      }
+      if (ordered[id] != null) {
+        throw new IllegalArgumentException(this.describe() + " id " + id + " is duplicated");
+      }
+      ordered[id] = this.values[i];
+    }
+    //every slot is filled at this point: n in-range ids without duplicates cover 0 to n-1
+    return ordered;
+  }
+
+  /**
+   * Returns the beginning of an error message, naming the question set and the tag.
+   * @return the description of the elements being ordered
+   */
+  private String describe() {
+    return "questionSet " + this.qSetID + ": <" + this.tagName + ">";
+  }
+}
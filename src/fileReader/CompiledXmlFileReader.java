@@ -0,0 +1,131 @@
+package fileReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import main.Processing;
+import model.AnsOpt;
+import model.QuestionSet;
+
+/**
+ * Represents a reader that loads the question sets from a compiled bank file (see QuestionBankFormat)
+ * instead of parsing the xml file, which makes loading large files close to instant.
+ *
+ * The compiled bank is kept next to the xml file, with the .bank extension. If it is missing, older than the
+ * xml file, or compiled with a different visual setting, the xml file is compiled again before loading.
+ */
+public class CompiledXmlFileReader extends XmlFileReader {
+  private final boolean readImages;
+
+  /**
+   * Constructs a CompiledXmlFileReader for the file named by Processing.FILE_NAME,
+   * which also loads the image urls if readImages is true.
+   * @param readImages whether to load the image urls, and create visual question sets
+   */
+  public CompiledXmlFileReader(boolean readImages) {
+    super();
+    this.readImages = readImages;
+  }
+
+  /**
+   * Constructs a CompiledXmlFileReader for the given xml file, which also loads the image urls if readImages is true.
+   * @param file the question xml file
+   * @param readImages whether to load the image urls, and create visual question sets
+   */
+  public CompiledXmlFileReader(File file, boolean readImages) {
+    super(file);
+    this.readImages = readImages;
+  }
+
+  /**
+   * Does not build a DOM; the compiled bank is checked and loaded when go() is called.
+   */
+  @Override
+  public void setUpDocElements() {
+    //nothing to set up
+  }
+
+  @Override
+  public void go() {
+    Map<Integer, QuestionSet> allQuestionSets = new HashMap<>();
+    try {
+      ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(this.getUpToDateBankFile().toPath()));
+      QuestionBankFormat.Header header = QuestionBankFormat.readHeader(buf);
+      for (int i = 0; i < header.numOfQuestionSets; i++) {
+        int offset = QuestionBankFormat.recordOffset(buf, header, i);
+        QuestionSet qSet = QuestionBankFormat.readQuestionSet(buf, offset, header.visual);
+        allQuestionSets.put(qSet.getId(), qSet);
+        this.countReadQSet();
+      }
+    }
+    catch (Exception e) {
+      System.out.println("ERROR! error loading compiled question sets: " + e.getMessage());
+    }
+    this.convertedQuestionSets = allQuestionSets;
+  }
+
+  /**
+   * Returns the compiled bank file of the xml file, (re)compiling it first if it is missing,
+   * older than the xml file, or compiled with a different visual setting.
+   * @return the up to date compiled bank file
+   * @throws IOException if the bank could not be compiled or read
+   */
+  protected File getUpToDateBankFile() throws IOException {
+    File xmlFile = this.getFile();
+    File bankFile = QuestionBankCompiler.bankFileFor(xmlFile);
+    if (QuestionBankCompiler.isStale(xmlFile, bankFile) || !this.hasMatchingHeader(bankFile)) {
+      System.out.println("compiling " + xmlFile + " to " + bankFile);
+      QuestionBankCompiler.compile(xmlFile, bankFile, this.readImages);
+    }
+    return bankFile;
+  }
+
+  /**
+   * Returns whether the given compiled bank file has a valid header with the visual setting of this reader.
+   * @param bankFile the compiled bank file
+   * @return true if the bank can be loaded as it is
+   */
+  private boolean hasMatchingHeader(File bankFile) {
+    byte[] headerBytes = new byte[QuestionBankFormat.HEADER_SIZE];
+    try (InputStream in = Files.newInputStream(bankFile.toPath())) {
+      if (in.readNBytes(headerBytes, 0, headerBytes.length) < headerBytes.length) {
+        return false;
+      }
+      return QuestionBankFormat.readHeader(ByteBuffer.wrap(headerBytes)).visual == this.readImages;
+    }
+    catch (IOException | IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public void consolePrintConvertedQuestionSets() {
+    for (int i = 0; i < convertedQuestionSets.size(); i++) {
+      QuestionSet qSet = convertedQuestionSets.get(i);
+
+      System.out.println("ID: " + qSet.getId());
+      System.out.println("Question: " + qSet.getQString());
+      if (this.readImages) {
+        System.out.println("QuestionIMAGE: " + qSet.getQuestionImageUrl());
+      }
+
+      //print out all the answerStrings in order
+      for (int n = 0; n < qSet.getNumOfAnsOpts(); n++) {
+        AnsOpt aOpt = qSet.getAnsOptAt(n);
+        System.out.print(Processing.ALPHABET[n] + ": " + aOpt.getAnsOptString());
+        if (this.readImages) {
+          System.out.print(" (image: " + aOpt.getAnsOptImageUrl() + ")");
+        }
+        System.out.println();
+      }
+      System.out.println("CORRECT: " + Processing.ALPHABET[qSet.getCorrectAnsOptIdx()]);
+      System.out.println();
+    }
+  }
+
+}
@@ -0,0 +1,110 @@
+package fileReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import model.QuestionBank;
+import model.QuestionSet;
+
+/**
+ * Represents a question bank backed by a memory-mapped compiled bank file (see QuestionBankFormat).
+ * Question sets are not materialized when the bank is opened: each one is only decoded from the mapped file
+ * when it is asked for, and only a small window of the most recently used question sets is kept on the heap.
+ * The heap use therefore stays the same no matter how many question sets the bank contains.
+ * The question set at index i is the one with id i, like in the other readers (see QuestionBankFormat).
+ *
+ * A store can be shared by any number of sessions without locking: the mapped file is only read with absolute
+ * gets, and each thread keeps its own window (so the heap use is the window size per thread).
+ *
+ * A single mapping is limited to 2GB, so larger banks cannot be opened.
+ */
+public class MappedQuestionStore implements QuestionBank {
+  //the default number of decoded question sets kept on the heap
+  public final static int DEFAULT_WINDOW_SIZE = 8;
+
+  private final MappedByteBuffer buf;
+  private final QuestionBankFormat.Header header;
+  private final ThreadLocal<Map<Integer, QuestionSet>> window;
+
+  /**
+   * Constructs a MappedQuestionStore over the given compiled bank file, with the default window size.
+   * @param bankFile the compiled bank file
+   * @throws IOException if the file cannot be mapped
+   */
+  public MappedQuestionStore(File bankFile) throws IOException {
+    this(bankFile, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * Constructs a MappedQuestionStore over the given compiled bank file.
+   * @param bankFile the compiled bank file
+   * @param windowSize the number of decoded question sets kept on the heap
+   * @throws IOException if the file cannot be mapped, or is not a valid compiled bank
+   */
+  public MappedQuestionStore(File bankFile, int windowSize) throws IOException {
+    try (FileChannel channel = FileChannel.open(bankFile.toPath(), StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("compiled bank is too large to be mapped: " + bankFile);
+      }
+      //the mapping stays valid after the channel is closed
+      this.buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    try {
+      this.header = QuestionBankFormat.readHeader(this.buf);
+    }
+    catch (IllegalArgumentException e) {
+      throw new IOException(e.getMessage() + ": " + bankFile);
+    }
+    //access-ordered, removing the least recently used question set once the window is full
+    this.window = ThreadLocal.withInitial(() -> new LinkedHashMap<Integer, QuestionSet>(windowSize * 2, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, QuestionSet> eldest) {
+        return this.size() > windowSize;
+      }
+    });
+  }
+
+  /**
+   * Opens the compiled bank of the given xml file, (re)compiling it first if it is out of date.
+   * @param xmlFile the question xml file
+   * @param readImages whether the bank should contain the image urls
+   * @return the store over the compiled bank
+   * @throws IOException if the bank could not be compiled or mapped
+   */
+  public static MappedQuestionStore open(File xmlFile, boolean readImages) throws IOException {
+    return new MappedQuestionStore(new CompiledXmlFileReader(xmlFile, readImages).getUpToDateBankFile());
+  }
+
+  @Override
+  public int size() {
+    return this.header.numOfQuestionSets;
+  }
+
+  @Override
+  public QuestionSet getQSetAt(int idx) {
+    if (idx < 0 || idx >= this.size()) {
+      return null;
+    }
+    Map<Integer, QuestionSet> threadWindow = this.window.get();
+    QuestionSet qSet = threadWindow.get(idx);
+    if (qSet == null) {
+      int offset = QuestionBankFormat.recordOffset(this.buf, this.header, idx);
+      qSet = QuestionBankFormat.readQuestionSet(this.buf, offset, this.header.visual);
+      threadWindow.put(idx, qSet);
+    }
+    return qSet;
+  }
+
+  /**
+   * Returns whether the mapped bank contains the image urls.
+   * @return true if the question sets are visual
+   */
+  public boolean isVisual() {
+    return this.header.visual;
+  }
+}
@@ -0,0 +1,368 @@
+package fileReader;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+import model.AnsOpt;
+import model.AnsOptImg;
+import model.AnsOptString;
+import model.ArrayQuestionBank;
+import model.QuestionSet;
+import model.QuestionSetSimple;
+import model.QuestionSetVisual;
+
+/**
+ * Loads several question xml files (e.g. one per topic) in parallel on a ForkJoinPool, and merges them into
+ * a single question bank, so that the loading time grows with the size of the largest files instead of
+ * with the number of files.
+ *
+ * Each file is streamed on its own (see StreamingXmlFileReader). The question sets of each file are then given
+ * new ids, following each other in the order of the files (sorted by name), and in the order of their ids
+ * within each file. Files that cannot be read are left out of the bank, and reported with their error.
+ * Image urls are made relative to the directory of the files, as each file has its own image folder
+ * (e.g. "dataSet01_visual_images/" next to "dataSet01_visual.xml").
+ */
+public class ParallelBankLoader {
+  //the suffix of the image folder next to each file
+  public final static String IMAGE_DIR_SUFFIX = "_images/";
+
+  /**
+   * Represents the outcome of loading one file.
+   */
+  public final static class FileReport {
+    private final File file;
+    private final int numOfQSets;
+    private final long parseNanos;
+    private final String error;
+
+    private FileReport(File file, int numOfQSets, long parseNanos, String error) {
+      this.file = file;
+      this.numOfQSets = numOfQSets;
+      this.parseNanos = parseNanos;
+      this.error = error;
+    }
+
+    public File getFile() {
+      return this.file;
+    }
+
+    public int getNumOfQSets() {
+      return this.numOfQSets;
+    }
+
+    public long getParseNanos() {
+      return this.parseNanos;
+    }
+
+    /**
+     * Returns the error of the file, if it could not be loaded.
+     * @return the error message, or null if the file was loaded
+     */
+    public String getError() {
+      return this.error;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s: %s (%.1f ms)", this.file.getName(),
+          this.error == null ? this.numOfQSets + " question sets" : "ERROR! " + this.error, this.parseNanos / 1e6);
+    }
+  }
+
+  /**
+   * Represents the merged question bank, and the outcome of loading each file.
+   */
+  public final static class Result {
+    private final ArrayQuestionBank questionBank;
+    private final List<FileReport> reports;
+    private final long wallNanos;
+
+    private Result(ArrayQuestionBank questionBank, List<FileReport> reports, long wallNanos) {
+      this.questionBank = questionBank;
+      this.reports = reports;
+      this.wallNanos = wallNanos;
+    }
+
+    public ArrayQuestionBank getQuestionBank() {
+      return this.questionBank;
+    }
+
+    /**
+     * Returns the outcome of loading each file, in the order of the files.
+     * @return the file reports (unmodifiable)
+     */
+    public List<FileReport> getReports() {
+      return this.reports;
+    }
+
+    /**
+     * Returns the time taken to load and merge all files.
+     * @return the elapsed time in nanoseconds
+     */
+    public long getWallNanos() {
+      return this.wallNanos;
+    }
+
+    /**
+     * Returns the number of files that could not be loaded.
+     * @return the number of failed files
+     */
+    public int getNumOfErrors() {
+      int errors = 0;
+      for (FileReport report : this.reports) {
+        if (report.getError() != null) {
+          errors++;
+        }
+      }
+      return errors;
+    }
+
+    /**
+     * Prints the outcome of loading each file, and the totals, to the console.
+     */
+    public void consolePrintReport() {
+      for (FileReport report : this.reports) {
+        System.out.println("  " + report);
+      }
+      System.out.println(String.format("loaded %d question sets from %d file(s), %d error(s), in %.1f ms",
+          this.questionBank.size(), this.reports.size(), getNumOfErrors(), this.wallNanos / 1e6));
+    }
+  }
+
+  /**
+   * Parses the files of a range of indices, splitting the range in halves until it is a single file.
+   */
+  private final static class ParseTask extends RecursiveAction {
+    private final static long serialVersionUID = 1L;
+
+    private final File[] files;
+    private final boolean visual;
+    private final List<List<QuestionSet>> parsed;
+    private final FileReport[] reports;
+    private final LongAdder progress;
+    private final int from;
+    private final int to;
+
+    private ParseTask(File[] files, boolean visual, List<List<QuestionSet>> parsed, FileReport[] reports,
+        LongAdder progress, int from, int to) {
+      this.files = files;
+      this.visual = visual;
+      this.parsed = parsed;
+      this.reports = reports;
+      this.progress = progress;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from == 1) {
+        parseFile(this.files[this.from], this.visual, this.parsed, this.reports, this.progress, this.from);
+        return;
+      }
+      int mid = (this.from + this.to) >>> 1;
+      invokeAll(new ParseTask(this.files, this.visual, this.parsed, this.reports, this.progress, this.from, mid),
+          new ParseTask(this.files, this.visual, this.parsed, this.reports, this.progress, mid, this.to));
+    }
+  }
+
+  private ParallelBankLoader() {
+    //only static members
+  }
+
+  /**
+   * Returns the question xml files matching the given pattern, sorted by name.
+   * The pattern is either a directory (all of its .xml files), a single file, or a glob on the file names
+   * of a directory (e.g. "src/resources/*_textOnly.xml").
+   * @param pattern the directory, file or glob
+   * @return the matching files (empty if there is none)
+   */
+  public static List<File> findFiles(String pattern) {
+    File path = new File(pattern);
+    File dir;
+    String glob;
+    if (path.isDirectory()) {
+      dir = path;
+      glob = "*.xml";
+    }
+    else if (path.isFile()) {
+      return Collections.singletonList(path);
+    }
+    else {
+      dir = path.getParentFile() == null ? new File(".") : path.getParentFile();
+      glob = path.getName();
+    }
+    PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+    File[] matching = dir.listFiles(file -> file.isFile() && matcher.matches(file.toPath().getFileName()));
+    if (matching == null) {
+      return Collections.emptyList();
+    }
+    Arrays.sort(matching);
+    return Arrays.asList(matching);
+  }
+
+  /**
+   * Returns the directory of the files matching the given pattern (see findFiles()),
+   * which the image urls of the merged bank are relative to.
+   * @param pattern the directory, file or glob
+   * @return the directory of the files
+   */
+  public static File baseDirOf(String pattern) {
+    File path = new File(pattern);
+    if (path.isDirectory()) {
+      return path;
+    }
+    return path.getParentFile() == null ? new File(".") : path.getParentFile();
+  }
+
+  /**
+   * Loads the files matching the given pattern (see findFiles()) on the common ForkJoinPool.
+   * @param pattern the directory, file or glob
+   * @param visual whether to read the image urls, and create visual question sets
+   * @return the merged question bank, and the outcome of loading each file
+   */
+  public static Result load(String pattern, boolean visual) {
+    return load(pattern, visual, new LongAdder());
+  }
+
+  /**
+   * Loads the files matching the given pattern (see findFiles()) on the common ForkJoinPool,
+   * counting the question sets parsed so far into the given counter, so that another thread can show the progress.
+   * @param pattern the directory, file or glob
+   * @param visual whether to read the image urls, and create visual question sets
+   * @param progress the counter of parsed question sets
+   * @return the merged question bank, and the outcome of loading each file
+   */
+  public static Result load(String pattern, boolean visual, LongAdder progress) {
+    return load(findFiles(pattern), visual, ForkJoinPool.commonPool(), progress);
+  }
+
+  /**
+   * Loads the given files in parallel on the given pool, and merges them into a single question bank.
+   * @param files the question xml files, in the order their question sets should follow each other
+   * @param visual whether to read the image urls, and create visual question sets
+   * @param pool the pool to parse the files on
+   * @param progress the counter of parsed question sets
+   * @return the merged question bank, and the outcome of loading each file
+   */
+  public static Result load(List<File> files, boolean visual, ForkJoinPool pool, LongAdder progress) {
+    long start = System.nanoTime();
+    File[] fileArray = files.toArray(new File[0]);
+    List<List<QuestionSet>> parsed = new ArrayList<>(Collections.nCopies(fileArray.length, null));
+    FileReport[] reports = new FileReport[fileArray.length];
+    if (fileArray.length > 0) {
+      pool.invoke(new ParseTask(fileArray, visual, parsed, reports, progress, 0, fileArray.length));
+    }
+
+    //merge, with the ids following each other in the order of the files
+    List<QuestionSet> merged = new ArrayList<>();
+    for (int f = 0; f < fileArray.length; f++) {
+      if (reports[f].getError() != null) {
+        continue;
+      }
+      String imagePrefix = imageDirName(fileArray[f]);
+      for (QuestionSet qSet : parsed.get(f)) {
+        merged.add(withId(qSet, merged.size(), imagePrefix, visual));
+      }
+    }
+    ArrayQuestionBank bank = new ArrayQuestionBank(merged.toArray(new QuestionSet[0]));
+    return new Result(bank, Collections.unmodifiableList(Arrays.asList(reports)), System.nanoTime() - start);
+  }
+
+  /**
+   * Parses the given file, and stores its question sets (sorted by id) and its report at the given index.
+   * Only ever writes its own index, so that files can be parsed concurrently.
+   */
+  private static void parseFile(File file, boolean visual, List<List<QuestionSet>> parsed, FileReport[] reports,
+      LongAdder progress, int idx) {
+    long start = System.nanoTime();
+    String error = null;
+    Map<Integer, QuestionSet> byId = new TreeMap<>();
+    if (!file.isFile()) {
+      error = "file not found";
+    }
+    else {
+      try {
+        StreamingXmlFileReader reader = new StreamingXmlFileReader(file, visual);
+        boolean[] duplicated = new boolean[1];
+        boolean complete = reader.go(qSet -> {
+          if (byId.put(qSet.getId(), qSet) != null) {
+            duplicated[0] = true;
+          }
+          progress.increment();
+        });
+        if (!complete) {
+          error = "file could not be parsed";
+        }
+        else if (duplicated[0]) {
+          error = "duplicate questionSet ids";
+        }
+        else if (byId.isEmpty()) {
+          error = "no questionSet elements";
+        }
+      }
+      catch (RuntimeException e) {
+        error = e.toString();
+      }
+    }
+    parsed.set(idx, error == null ? new ArrayList<>(byId.values()) : null);
+    reports[idx] = new FileReport(file, error == null ? byId.size() : 0, System.nanoTime() - start, error);
+  }
+
+  /**
+   * Returns the name of the image folder of the given file, relative to the directory of the file.
+   */
+  private static String imageDirName(File file) {
+    String name = file.getName();
+    int dot = name.lastIndexOf('.');
+    return (dot < 0 ? name : name.substring(0, dot)) + IMAGE_DIR_SUFFIX;
+  }
+
+  /**
+   * Returns a copy of the given question set with the given id, and with its image urls prefixed with the given
+   * image folder (if visual).
+   */
+  private static QuestionSet withId(QuestionSet qSet, int id, String imagePrefix, boolean visual) {
+    AnsOpt[] ansOpts = new AnsOpt[qSet.getNumOfAnsOpts()];
+    for (int i = 0; i < ansOpts.length; i++) {
+      AnsOpt ansOpt = qSet.getAnsOptAt(i);
+      ansOpts[i] = visual ? new AnsOptImg(ansOpt.getAnsOptString(), imagePrefix + ansOpt.getAnsOptImageUrl())
+          : new AnsOptString(ansOpt.getAnsOptString());
+    }
+    if (visual) {
+      return new QuestionSetVisual(id, qSet.getQString(), ansOpts, qSet.getCorrectAnsOptIdx(),
+          imagePrefix + qSet.getQuestionImageUrl());
+    }
+    return new QuestionSetSimple(id, qSet.getQString(), ansOpts, qSet.getCorrectAnsOptIdx());
+  }
+
+  // Driver code
+  public static void main(String[] args) {
+    //Usage: ParallelBankLoader directoryOrGlob [textOnly|visual] [parallelism]
+    String pattern = args.length > 0 ? args[0] : "src/resources/*_textOnly.xml";
+    boolean visual = args.length > 1 && args[1].equals("visual");
+    int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+    List<File> files = findFiles(pattern);
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      //the first load warms up the parser
+      load(files, visual, pool, new LongAdder());
+      Result result = load(files, visual, pool, new LongAdder());
+      System.out.println(pattern + " on " + parallelism + " thread(s):");
+      result.consolePrintReport();
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package fileReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A command line tool that compiles a question xml file (e.g. src/resources/dataSet01_visual.xml)
+ * into a compiled bank file (see QuestionBankFormat), which can be loaded without parsing any xml.
+ *
+ * Usage: QuestionBankCompiler xmlFile [bankFile]
+ * If no bank file is given, it is written next to the xml file, with the .bank extension.
+ * Like the game itself, files whose name contains "textOnly" are compiled without image urls.
+ */
+public class QuestionBankCompiler {
+
+  private QuestionBankCompiler() {
+    //only static members
+  }
+
+  /**
+   * Returns the default compiled bank file for the given xml file (the same path, with the .bank extension).
+   * @param xmlFile the question xml file
+   * @return the compiled bank file
+   */
+  public static File bankFileFor(File xmlFile) {
+    String name = xmlFile.getName();
+    int dot = name.lastIndexOf('.');
+    String baseName = dot < 0 ? name : name.substring(0, dot);
+    return new File(xmlFile.getParentFile(), baseName + QuestionBankFormat.EXTENSION);
+  }
+
+  /**
+   * Returns whether the given compiled bank file is missing or older than the given xml file.
+   * @param xmlFile the question xml file
+   * @param bankFile the compiled bank file
+   * @return true if the bank needs to be (re)compiled
+   */
+  public static boolean isStale(File xmlFile, File bankFile) {
+    return !bankFile.exists() || bankFile.lastModified() < xmlFile.lastModified();
+  }
+
+  /**
+   * Compiles the given xml file into the given bank file. The bank is first written to a temporary file,
+   * which only replaces the bank file once it is complete.
+   * The question sets can be in any order in the xml file, but their ids must be exactly 0 to n-1,
+   * so that the question set at index i of the compiled bank is the one with id i.
+   * @param xmlFile the question xml file
+   * @param bankFile the compiled bank file to write
+   * @param visual whether to include the image urls
+   * @return the number of question sets written
+   * @throws IOException if the xml file could not be read, its ids are not 0 to n-1, or the bank could not be written
+   */
+  public static int compile(File xmlFile, File bankFile, boolean visual) throws IOException {
+    File tmpFile = new File(bankFile.getPath() + ".tmp");
+    StreamingXmlFileReader reader = new StreamingXmlFileReader(xmlFile, visual);
+    int[] count = new int[1];
+    boolean complete;
+    try (QuestionBankFormat.Writer writer = new QuestionBankFormat.Writer(tmpFile, visual)) {
+      complete = reader.go(qSet -> {
+        try {
+          writer.write(qSet);
+          count[0]++;
+        }
+        catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    }
+    catch (IOException e) {
+      Files.deleteIfExists(tmpFile.toPath());
+      throw new IOException("could not compile " + xmlFile + ": " + e.getMessage(), e);
+    }
+    if (!complete) {
+      Files.deleteIfExists(tmpFile.toPath());
+      throw new IOException("could not compile " + xmlFile);
+    }
+    Files.move(tmpFile.toPath(), bankFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    return count[0];
+  }
+
+  // Driver code
+  public static void main(String[] args) {
+    if (args.length < 1 || args.length > 2) {
+      System.out.println("usage: QuestionBankCompiler xmlFile [bankFile]");
+      return;
+    }
+    File xmlFile = new File(args[0]);
+    File bankFile = args.length == 2 ? new File(args[1]) : bankFileFor(xmlFile);
+    boolean visual = !xmlFile.getName().contains("textOnly");
+    try {
+      long start = System.nanoTime();
+      int count = compile(xmlFile, bankFile, visual);
+      System.out.println("compiled " + count + " question sets to " + bankFile
+          + " in " + ((System.nanoTime() - start) / 1000000) + "ms");
+    }
+    catch (IOException e) {
+      System.out.println("ERROR! " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,263 @@
+package fileReader;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import model.AnsOpt;
+import model.AnsOptImg;
+import model.AnsOptString;
+import model.QuestionSet;
+import model.QuestionSetSimple;
+import model.QuestionSetVisual;
+
+/**
+ * This class contains the layout of the compiled (binary) question bank format,
+ * as well as the methods used to write and read it.
+ *
+ * A compiled bank file is laid out as follows (all numbers are big-endian):
+ * <pre>
+ *   header:  int MAGIC, int VERSION, int flags, int numOfQuestionSets, long offsetTablePosition
+ *   records: one record per question set, in the order of the xml file
+ *   table:   long offset of the record of each question set id (0 to numOfQuestionSets-1), from the start of the file
+ * </pre>
+ * so that the question set at index i (as in the other readers) is the one with id i, whatever the order of the file.
+ * and each record is:
+ * <pre>
+ *   int id, int correctAnsOptIdx, string question, string questionImage,
+ *   int numOfAnsOpts, then for each answer option: string answer, string answerImage
+ * </pre>
+ * where each string is an int byte length followed by the UTF-8 bytes, and a length of -1 means no string.
+ * The image strings are only written if the VISUAL flag is set.
+ */
+public final class QuestionBankFormat {
+  public final static int MAGIC = 0x54525642; //"TRVB"
+  public final static int VERSION = 2;
+  public final static int FLAG_VISUAL = 1;
+  public final static int HEADER_SIZE = 4 + 4 + 4 + 4 + 8;
+  //the file extension of compiled banks
+  public final static String EXTENSION = ".bank";
+
+  private QuestionBankFormat() {
+    //only static members
+  }
+
+  /**
+   * Represents the header of a compiled bank.
+   */
+  public static class Header {
+    public final boolean visual;
+    public final int numOfQuestionSets;
+    public final long offsetTablePosition;
+
+    private Header(boolean visual, int numOfQuestionSets, long offsetTablePosition) {
+      this.visual = visual;
+      this.numOfQuestionSets = numOfQuestionSets;
+      this.offsetTablePosition = offsetTablePosition;
+    }
+  }
+
+  /**
+   * Reads the header at the start of the given buffer.
+   * @param buf the buffer containing the compiled bank
+   * @return the header
+   * @throws IllegalArgumentException if the buffer is not a compiled bank of the current version
+   */
+  public static Header readHeader(ByteBuffer buf) {
+    if (buf.limit() < HEADER_SIZE || buf.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("not a compiled question bank");
+    }
+    if (buf.getInt(4) != VERSION) {
+      throw new IllegalArgumentException("unsupported question bank version " + buf.getInt(4));
+    }
+    return new Header((buf.getInt(8) & FLAG_VISUAL) != 0, buf.getInt(12), buf.getLong(16));
+  }
+
+  /**
+   * Returns the offset of the record of the question set at the given index (its id).
+   * @param buf the buffer containing the compiled bank
+   * @param header the header of the compiled bank
+   * @param idx the index of the question set
+   * @return the offset of the record, from the start of the buffer
+   */
+  public static int recordOffset(ByteBuffer buf, Header header, int idx) {
+    return (int) buf.getLong((int) header.offsetTablePosition + idx * 8);
+  }
+
+  /**
+   * Decodes the question set whose record starts at the given offset.
+   * Does not change the position of the given buffer.
+   * @param buf the buffer containing the compiled bank
+   * @param offset the offset of the record
+   * @param visual whether the bank contains image urls
+   * @return a QuestionSetVisual if the bank is visual, otherwise a QuestionSetSimple
+   */
+  public static QuestionSet readQuestionSet(ByteBuffer buf, int offset, boolean visual) {
+    ByteBuffer in = buf.duplicate();
+    in.position(offset);
+    int id = in.getInt();
+    int correctAnsOptIdx = in.getInt();
+    String qString = readString(in);
+    String qImageUrl = visual ? readString(in) : null;
+    int numOfAnsOpts = in.getInt();
+    AnsOpt[] ansOpts = new AnsOpt[numOfAnsOpts];
+    for (int i = 0; i < numOfAnsOpts; i++) {
+      String aString = readString(in);
+      if (visual) {
+        ansOpts[i] = new AnsOptImg(aString, readString(in));
+      }
+      else {
+        ansOpts[i] = new AnsOptString(aString);
+      }
+    }
+    if (visual) {
+      return new QuestionSetVisual(id, qString, ansOpts, correctAnsOptIdx, qImageUrl);
+    }
+    return new QuestionSetSimple(id, qString, ansOpts, correctAnsOptIdx);
+  }
+
+  /**
+   * Reads a length-prefixed UTF-8 string at the position of the given buffer.
+   * @param in the buffer to read from
+   * @return the string, or null if the length is -1
+   */
+  private static String readString(ByteBuffer in) {
+    int length = in.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes question sets, one at a time and in any order, to a compiled bank file.
+   * The offset table (ordered by id) and the final header are written when the writer is closed.
+   * The ids of the question sets must be exactly 0 to n-1 (where n is the number of question sets).
+   */
+  public static class Writer implements Closeable {
+    //the offset of the ids that have not been written (no record starts before the header's end)
+    private final static long NO_OFFSET = -1;
+
+    private final File file;
+    private final boolean visual;
+    private final DataOutputStream out;
+    private long position;
+    //the offset of each id's record
+    private long[] offsets;
+    private int count;
+    private int maxId;
+
+    /**
+     * Constructs a Writer that creates (or overwrites) the given file.
+     * @param file the compiled bank file to write
+     * @param visual whether to write the image urls
+     * @throws IOException if the file cannot be created
+     */
+    public Writer(File file, boolean visual) throws IOException {
+      this.file = file;
+      this.visual = visual;
+      this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+      this.offsets = new long[1024];
+      Arrays.fill(this.offsets, NO_OFFSET);
+      this.count = 0;
+      this.maxId = -1;
+      //placeholder header, rewritten on close
+      this.out.write(new byte[HEADER_SIZE]);
+      this.position = HEADER_SIZE;
+    }
+
+    /**
+     * Appends the record of the given question set.
+     * @param qSet the question set to write
+     * @throws IOException if the record cannot be written, or the id of the question set is negative
+     *     or was already written
+     */
+    public void write(QuestionSet qSet) throws IOException {
+      int id = qSet.getId();
+      if (id < 0) {
+        throw new IOException("questionSet id " + id + " is negative");
+      }
+      if (id >= this.offsets.length) {
+        int oldLength = this.offsets.length;
+        this.offsets = Arrays.copyOf(this.offsets, Math.max(oldLength * 2, id + 1));
+        Arrays.fill(this.offsets, oldLength, this.offsets.length, NO_OFFSET);
+      }
+      if (this.offsets[id] != NO_OFFSET) {
+        throw new IOException("questionSet id " + id + " is duplicated");
+      }
+      this.offsets[id] = this.position;
+      this.count++;
+      this.maxId = Math.max(this.maxId, id);
+      this.writeInt(qSet.getId());
+      this.writeInt(qSet.getCorrectAnsOptIdx());
+      this.writeString(qSet.getQString());
+      if (this.visual) {
+        this.writeString(qSet.getQuestionImageUrl());
+      }
+      this.writeInt(qSet.getNumOfAnsOpts());
+      for (int i = 0; i < qSet.getNumOfAnsOpts(); i++) {
+        AnsOpt aOpt = qSet.getAnsOptAt(i);
+        this.writeString(aOpt.getAnsOptString());
+        if (this.visual) {
+          this.writeString(aOpt.getAnsOptImageUrl());
+        }
+      }
+    }
+
+    private void writeInt(int value) throws IOException {
+      this.out.writeInt(value);
+      this.position += 4;
+    }
+
+    private void writeString(String str) throws IOException {
+      if (str == null) {
+        this.writeInt(-1);
+        return;
+      }
+      byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+      this.writeInt(bytes.length);
+      this.out.write(bytes);
+      this.position += bytes.length;
+    }
+
+    /**
+     * Writes the offset table, then rewrites the header with the number of question sets
+     * and the position of the table.
+     * @throws IOException if the file cannot be written, or an id between 0 and the largest id is missing
+     */
+    @Override
+    public void close() throws IOException {
+      //the ids are distinct, so there is a gap unless the largest one is count-1
+      if (this.maxId != this.count - 1) {
+        this.out.close();
+        int missing = 0;
+        while (this.offsets[missing] != NO_OFFSET) {
+          missing++;
+        }
+        throw new IOException("questionSet id " + missing + " is missing (the ids of " + this.count
+            + " question sets must be 0 to " + (this.count - 1) + ")");
+      }
+      long offsetTablePosition = this.position;
+      for (int i = 0; i < this.count; i++) {
+        this.out.writeLong(this.offsets[i]);
+      }
+      this.out.close();
+      try (RandomAccessFile raf = new RandomAccessFile(this.file, "rw")) {
+        raf.writeInt(MAGIC);
+        raf.writeInt(VERSION);
+        raf.writeInt(this.visual ? FLAG_VISUAL : 0);
+        raf.writeInt(this.count);
+        raf.writeLong(offsetTablePosition);
+      }
+    }
+  }
+}
@@ -41,12 +41,14 @@ public class SimpleXmlFileReader extends XmlFileReader {
     super();
   }
 
-  @Override
-  public void go() {
-    System.out.println("simple go called");
-    super.go();
+  /**
+   * Constructs a SimpleXmlFileReader for the given file.
+   * @param file the xml file to be read
+   */
+  public SimpleXmlFileReader(File file) { 
+    super(file);
   }
-  
+
   @Override
   public void consolePrintConvertedQuestionSets() {
     for (int i = 0; i < convertedQuestionSets.size(); i++) {
@@ -56,8 +58,8 @@ public class SimpleXmlFileReader extends XmlFileReader {
       System.out.println("Question : " + qSet.getQString());
 
       //print out all the answerStrings in order
-      for (int n = 0; n < qSet.getMapOfAnsOpts().size(); n++) {
-        AnsOpt aOpt = qSet.getMapOfAnsOpts().get(n);
+      for (int n = 0; n < qSet.getNumOfAnsOpts(); n++) {
+        AnsOpt aOpt = qSet.getAnsOptAt(n);
         System.out.println(Processing.ALPHABET[n] + " : " + aOpt.getAnsOptString());
       }
 
@@ -0,0 +1,210 @@
+package fileReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import main.Processing;
+import model.AnsOpt;
+import model.AnsOptImg;
+import model.AnsOptString;
+import model.QuestionSet;
+import model.QuestionSetSimple;
+import model.QuestionSetVisual;
+
+/**
+ * Represents a streaming XML file reader, which reads the questionSet elements one by one with a StAX
+ * (javax.xml.stream) reader instead of building a DOM of the whole file. Each QuestionSet is created as soon as
+ * the closing tag of its questionSet element is read, so only one question's data is held at a time while parsing.
+ *
+ * Like the other readers, the a, aImg and qImg children of a questionSet can be in any order,
+ * and the answer options are sorted by the id attribute of their tags.
+ */
+public class StreamingXmlFileReader extends XmlFileReader {
+  private final boolean readImages;
+
+  /**
+   * Constructs a StreamingXmlFileReader, which also reads the image urls if readImages is true.
+   * @param readImages whether to read the qImg and aImg elements, and create visual question sets
+   */
+  public StreamingXmlFileReader(boolean readImages) {
+    super();
+    this.readImages = readImages;
+  }
+
+  /**
+   * Constructs a StreamingXmlFileReader for the given file, which also reads the image urls if readImages is true.
+   * @param file the xml file to be read
+   * @param readImages whether to read the qImg and aImg elements, and create visual question sets
+   */
+  public StreamingXmlFileReader(File file, boolean readImages) {
+    super(file);
+    this.readImages = readImages;
+  }
+
+  /**
+   * Does not build a DOM; the file is streamed when go() is called.
+   */
+  @Override
+  public void setUpDocElements() {
+    //nothing to set up
+  }
+
+  @Override
+  public void go() {
+    Map<Integer, QuestionSet> allQuestionSets = new HashMap<>();
+    this.go(qSet -> allQuestionSets.put(qSet.getId(), qSet));
+    this.convertedQuestionSets = allQuestionSets;
+  }
+
+  /**
+   * Streams through the xml file, and passes each QuestionSet to the given consumer as soon as
+   * the closing tag of its questionSet element is read. The question sets are not kept by this reader.
+   * @param consumer the consumer that is given each question set, in the order of the file
+   * @return true if the whole file was read, false if an error occurred (and was printed to the console)
+   */
+  public boolean go(Consumer<QuestionSet> consumer) {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+
+    try (InputStream in = new FileInputStream(this.getFile())) {
+      XMLStreamReader xml = factory.createXMLStreamReader(in);
+      try {
+        //the data of the questionSet element we are currently in
+        int qSetID = 0;
+        String questionString = null;
+        String qImageUrl = null;
+        int correctAnswer = 0;
+        AnsOptOrderer answerStrings = new AnsOptOrderer("a");
+        AnsOptOrderer answerImageUrls = new AnsOptOrderer("aImg");
+
+        while (xml.hasNext()) {
+          int event = xml.next();
+          if (event == XMLStreamConstants.START_ELEMENT) {
+            switch (xml.getLocalName()) {
+              case "questionSet":
+                qSetID = Integer.parseInt(xml.getAttributeValue(null, "id"));
+                questionString = null;
+                qImageUrl = null;
+                correctAnswer = 0;
+                answerStrings.reset(qSetID);
+                answerImageUrls.reset(qSetID);
+                break;
+              case "q":
+                questionString = xml.getElementText();
+                break;
+              case "a":
+                answerStrings.add(xml.getAttributeValue(null, "id"), xml.getElementText());
+                break;
+              case "correct":
+                correctAnswer = Integer.parseInt(xml.getElementText().trim());
+                break;
+              case "qImg":
+                if (this.readImages) {
+                  qImageUrl = xml.getElementText();
+                }
+                break;
+              case "aImg":
+                if (this.readImages) {
+                  answerImageUrls.add(xml.getAttributeValue(null, "id"), xml.getElementText());
+                }
+                break;
+              default:
+                break;
+            }
+          }
+          else if (event == XMLStreamConstants.END_ELEMENT && xml.getLocalName().equals("questionSet")) {
+            consumer.accept(this.createQuestionSet(qSetID, questionString, answerStrings,
+                correctAnswer, qImageUrl, answerImageUrls));
+            this.countReadQSet();
+          }
+        }
+      }
+      finally {
+        xml.close();
+      }
+    }
+    catch (XMLStreamException e) {
+      System.out.println("ERROR! xml stream could not be read: " + e.getMessage());
+      return false;
+    }
+    catch (Exception e) {
+      System.out.println("ERROR! error converting question sets: " + e.getMessage());
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Creates a QuestionSet object from the data of one questionSet element, with the answer options
+   * sorted by their ids. Creates a QuestionSetVisual if this reader reads images, otherwise a QuestionSetSimple.
+   * @param qSetID the question set's id
+   * @param questionString the question string
+   * @param answerStrings the answer strings, with their id attributes
+   * @param correctAnswer the index of the correct answer option
+   * @param qImageUrl the question image url (only used if this reader reads images)
+   * @param answerImageUrls the answer image urls, with their id attributes (only used if this reader reads images)
+   * @return the created question set
+   * @throws IllegalArgumentException if an answer option id is missing, duplicated or out of range
+   */
+  private QuestionSet createQuestionSet(int qSetID, String questionString, AnsOptOrderer answerStrings,
+      int correctAnswer, String qImageUrl, AnsOptOrderer answerImageUrls) {
+    String[] orderedStrings = answerStrings.toOrderedArray();
+    String[] orderedImageUrls = null;
+    if (this.readImages) {
+      orderedImageUrls = answerImageUrls.toOrderedArray();
+      if (orderedImageUrls.length != orderedStrings.length) {
+        throw new IllegalArgumentException("questionSet " + qSetID + " has " + orderedStrings.length 
+            + " <a> elements but " + orderedImageUrls.length + " <aImg> elements");
+      }
+    }
+    AnsOpt[] ansOpts = new AnsOpt[orderedStrings.length];
+    for (int m = 0; m < orderedStrings.length; m++) {
+      if (this.readImages) {
+        ansOpts[m] = new AnsOptImg(orderedStrings[m], orderedImageUrls[m]);
+      }
+      else {
+        ansOpts[m] = new AnsOptString(orderedStrings[m]);
+      }
+    }
+    if (this.readImages) {
+      return new QuestionSetVisual(qSetID, questionString, ansOpts, correctAnswer, qImageUrl);
+    }
+    return new QuestionSetSimple(qSetID, questionString, ansOpts, correctAnswer);
+  }
+
+  @Override
+  public void consolePrintConvertedQuestionSets() {
+    for (int i = 0; i < convertedQuestionSets.size(); i++) {
+      QuestionSet qSet = convertedQuestionSets.get(i);
+
+      System.out.println("ID: " + qSet.getId());
+      System.out.println("Question: " + qSet.getQString());
+      if (this.readImages) {
+        System.out.println("QuestionIMAGE: " + qSet.getQuestionImageUrl());
+      }
+
+      //print out all the answerStrings in order
+      for (int n = 0; n < qSet.getNumOfAnsOpts(); n++) {
+        AnsOpt aOpt = qSet.getAnsOptAt(n);
+        System.out.print(Processing.ALPHABET[n] + ": " + aOpt.getAnsOptString());
+        if (this.readImages) {
+          System.out.print(" (image: " + aOpt.getAnsOptImageUrl() + ")");
+        }
+        System.out.println();
+      }
+      System.out.println("CORRECT: " + Processing.ALPHABET[qSet.getCorrectAnsOptIdx()]);
+      System.out.println();
+    }
+  }
+
+}
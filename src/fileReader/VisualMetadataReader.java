@@ -0,0 +1,121 @@
+package fileReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import model.AnsOpt;
+import model.AnsOptImg;
+import model.ArrayQuestionBank;
+import model.QuestionBank;
+import model.QuestionSet;
+import model.QuestionSetVisual;
+
+/**
+ * Represents the second tier of loading a visual question file: reading only its image urls (the qImg and aImg
+ * elements), and attaching them to question sets that were already read without images (e.g. by a
+ * SimpleXmlFileReader), so that the visual data is only read once the VISUAL mode is actually chosen.
+ *
+ * The text of the question sets is not read again: the question strings and answer strings of the given
+ * text-only question sets are reused as they are. Like the other readers, the aImg elements can be in any order,
+ * and are sorted by their id attribute.
+ */
+public class VisualMetadataReader {
+  private final File file;
+
+  /**
+   * Constructs a VisualMetadataReader for the given xml file.
+   * @param file the xml file, which the text-only question sets were read from
+   */
+  public VisualMetadataReader(File file) {
+    this.file = file;
+  }
+
+  /**
+   * Streams through the xml file, and returns a question bank with the question sets of the given bank,
+   * with the image urls of the file attached.
+   * @param textBank the question sets read from the same file without images (indexed by their ids)
+   * @return a bank of the same question sets, as visual question sets
+   * @throws IOException if the file could not be read
+   * @throws IllegalArgumentException if the file does not match the given bank (a question set or an image is missing)
+   */
+  public ArrayQuestionBank attachTo(QuestionBank textBank) throws IOException {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+
+    QuestionSet[] visualQSets = new QuestionSet[textBank.size()];
+    try (InputStream in = new FileInputStream(this.file)) {
+      XMLStreamReader xml = factory.createXMLStreamReader(in);
+      try {
+        //the image urls of the questionSet element we are currently in
+        int qSetID = 0;
+        String qImageUrl = null;
+        AnsOptOrderer answerImageUrls = new AnsOptOrderer("aImg");
+
+        while (xml.hasNext()) {
+          int event = xml.next();
+          if (event == XMLStreamConstants.START_ELEMENT) {
+            switch (xml.getLocalName()) {
+              case "questionSet":
+                qSetID = Integer.parseInt(xml.getAttributeValue(null, "id"));
+                qImageUrl = null;
+                answerImageUrls.reset(qSetID);
+                break;
+              case "qImg":
+                qImageUrl = xml.getElementText();
+                break;
+              case "aImg":
+                answerImageUrls.add(xml.getAttributeValue(null, "id"), xml.getElementText());
+                break;
+              default:
+                break;
+            }
+          }
+          else if (event == XMLStreamConstants.END_ELEMENT && xml.getLocalName().equals("questionSet")) {
+            QuestionSet textQSet = textBank.getQSetAt(qSetID);
+            if (textQSet == null) {
+              throw new IllegalArgumentException("questionSet " + qSetID + " was not read without images");
+            }
+            visualQSets[qSetID] = withImages(textQSet, qImageUrl, answerImageUrls.toOrderedArray());
+          }
+        }
+      }
+      finally {
+        xml.close();
+      }
+    }
+    catch (XMLStreamException e) {
+      throw new IOException("xml stream could not be read: " + e.getMessage(), e);
+    }
+    for (int i = 0; i < visualQSets.length; i++) {
+      if (visualQSets[i] == null) {
+        throw new IllegalArgumentException("questionSet " + i + " has no image urls in " + this.file);
+      }
+    }
+    return new ArrayQuestionBank(visualQSets);
+  }
+
+  /**
+   * Returns the given text-only question set, with the given image urls attached.
+   * @throws IllegalArgumentException if there is not one answer image url per answer option
+   */
+  private static QuestionSet withImages(QuestionSet textQSet, String qImageUrl, String[] answerImageUrls) {
+    if (answerImageUrls.length != textQSet.getNumOfAnsOpts()) {
+      throw new IllegalArgumentException("questionSet " + textQSet.getId() + " has " + textQSet.getNumOfAnsOpts()
+          + " <a> elements but " + answerImageUrls.length + " <aImg> elements");
+    }
+    AnsOpt[] ansOpts = new AnsOpt[answerImageUrls.length];
+    for (int m = 0; m < ansOpts.length; m++) {
+      ansOpts[m] = new AnsOptImg(textQSet.getAnsOptAt(m).getAnsOptString(), answerImageUrls[m]);
+    }
+    return new QuestionSetVisual(textQSet.getId(), textQSet.getQString(), ansOpts, textQSet.getCorrectAnsOptIdx(),
+        qImageUrl);
+  }
+}
@@ -1,9 +1,6 @@
 package fileReader;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.File;
 
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -11,10 +8,8 @@ import org.w3c.dom.NodeList;
 
 import main.Processing;
 import model.AnsOpt;
-import model.AnsOptString;
 import model.AnsOptImg;
 import model.QuestionSet;
-import model.QuestionSetSimple;
 import model.QuestionSetVisual;
 
 /**
@@ -23,8 +18,6 @@ import model.QuestionSetVisual;
  * @author stefanieim
  */
 public class VisualXmlFileReader extends XmlFileReader {
-  private String qImageUrl;
-  private Map<Integer, String> answerImageUrls;
 
 
   /**
@@ -33,93 +26,76 @@ public class VisualXmlFileReader extends XmlFileReader {
    */
   public VisualXmlFileReader() {
     super();
-    this.answerImageUrls = new HashMap<>();
   }
 
-  @Override
-  public void go() {
-    super.go();
-    System.out.println("visual go called");
-    try {
-      //for all the questionSets
-      for (int i = 0; i < xmlQuestionSetList.getLength(); i++) {
-        Node node = xmlQuestionSetList.item(i); 
-        if (node.getNodeType() == Node.ELEMENT_NODE) {  
-          Element qSet = (Element) node; 
-
-          //question image
-          this.qImageUrl = qSet.getElementsByTagName("qImg").item(0).getTextContent();
-
-          //answer images
-          List<String> answerImageUrlList = new ArrayList<>();
-
-          int numOfAnswerImages = qSet.getElementsByTagName("aImg").getLength();
-          NodeList aObjectsList = qSet.getElementsByTagName("aImg");
-
-          int aOidWeAreLookingFor = 0;
-          int jj = 0;   //the answer Option we are on while parsing ()
-
-          //sorting unordered aO elements
-          while (jj <= numOfAnswerImages - 1) {
-            Node aO = aObjectsList.item(jj); //starting from 0(jj)th aObject       
-            String aOid = aO.getAttributes().item(0).getTextContent();
-            if (aOid.equals(Integer.toString(aOidWeAreLookingFor))) {
-              answerImageUrlList.add(aOidWeAreLookingFor, aO.getTextContent());
-              aOidWeAreLookingFor++;//go to the next id to look for
-            }
-            else {
-              if (jj == numOfAnswerImages - 1 && answerImageUrlList.size() < numOfAnswerImages) {
-                jj = 0; //reset the index of element if we have parsed through til last element and the size has still
-              }
-              else {
-                jj++;
-              }
-            }
-          }
-          //add all list items to a map
-          Map<Integer, String> mapOfAnsImageUrls = new HashMap<>();
-          for (int m = 0; m < answerImageUrlList.size(); m++) {
-            String strToAdd = answerImageUrlList.get(m);
-            mapOfAnsImageUrls.put(m, strToAdd);
-          }
-          this.answerImageUrls = mapOfAnsImageUrls;
-
-          convertQuestionSetSimpleToVisual(i, this.qImageUrl, this.answerImageUrls);
-        }
-      }
-    }
-    catch (Exception e) {
-      System.out.println("ERROR! error converting question set IMAGES");
-    }
+  /**
+   * Constructs a VisualXmlFileReader for the given file.
+   * @param file the xml file to be read
+   */
+  public VisualXmlFileReader(File file) {
+    super(file);
   }
 
   /**
-   * Converts each QuestionSet object generated from the super class' go() method, 
-   * from a QuestionSetSimple object to a QuestionSetVisual object, with the question image url and 
-   * answer option images added. In order to add the answer option image urls, 
-   * it also converts the original AnsOptString object to an AnsOptImg object.
-   * @param idx the index of the question set to convert
-   * @param qImageUrl the string url for the question image
-   * @param answerImageUrls a map containing the answer image urls for each answer option index
+   * Converts a single questionSet element directly into a QuestionSetVisual object, with AnsOptImg answer options.
+   * The question string, answer strings, image urls, and the correct answer are all extracted in one pass
+   * over the children of the element, so no QuestionSetSimple has to be created and converted afterwards.
+   * The answer options (and their images) are sorted by the id attribute given inside the a and aImg tags.
+   * @param qSet the questionSet element to convert
+   * @return the resulting QuestionSetVisual object
    */
-  private void convertQuestionSetSimpleToVisual(int idx, String qImageUrl, Map<Integer, String> answerImageUrls) {
-    QuestionSet orig = super.convertedQuestionSets.get(idx); //simple
+  @Override
+  protected QuestionSet convertQuestionSetElement(Element qSet) {
+    int qSetID = Integer.parseInt(qSet.getAttribute("id"));
+    String questionString = null;
+    String qImageUrl = null;
+    int correctAnswer = 0;
+    AnsOptOrderer answerStrings = new AnsOptOrderer("a");
+    AnsOptOrderer answerImageUrls = new AnsOptOrderer("aImg");
+    answerStrings.reset(qSetID);
+    answerImageUrls.reset(qSetID);
+
+    //one pass over the children, which can be in any order
+    NodeList children = qSet.getChildNodes();
+    for (int c = 0; c < children.getLength(); c++) {
+      Node child = children.item(c);
+      if (child.getNodeType() != Node.ELEMENT_NODE) {
+        continue;
+      }
+      Element element = (Element) child;
+      switch (element.getTagName()) {
+        case "q":
+          questionString = element.getTextContent();
+          break;
+        case "a":
+          answerStrings.add(element.getAttribute("id"), element.getTextContent());
+          break;
+        case "aImg":
+          answerImageUrls.add(element.getAttribute("id"), element.getTextContent());
+          break;
+        case "qImg":
+          qImageUrl = element.getTextContent();
+          break;
+        case "correct":
+          correctAnswer = Integer.parseInt(element.getTextContent().trim());
+          break;
+        default:
+          break;
+      }
+    }
 
-    int newId = orig.getId();
-    String newQuestionString = orig.getQString();
-    Map<Integer, AnsOpt> newMapOfAnsOpts = new HashMap<>();
-    
-    //replace old AnsOpt with new AnsOpts (image url added)
-    for (int i = 0; i < orig.getMapOfAnsOpts().size(); i++) {
-      AnsOpt origAO = orig.getMapOfAnsOpts().get(i);
-      String aOImageUrl = answerImageUrls.get(i);
-      AnsOpt newAO = new AnsOptImg(origAO.getAnsOptString(), aOImageUrl);
-      newMapOfAnsOpts.put(i, newAO);
+    //build the answer options in the order of their ids
+    String[] orderedStrings = answerStrings.toOrderedArray();
+    String[] orderedImageUrls = answerImageUrls.toOrderedArray();
+    if (orderedImageUrls.length != orderedStrings.length) {
+      throw new IllegalArgumentException("questionSet " + qSetID + " has " + orderedStrings.length 
+          + " <a> elements but " + orderedImageUrls.length + " <aImg> elements");
     }
-    
-    //new QuestionSetVisual
-    QuestionSet newVisualQuestionSet = new QuestionSetVisual(newId, newQuestionString, newMapOfAnsOpts, orig.getCorrectAnsOptIdx(), qImageUrl);
-    super.convertedQuestionSets.put(idx, newVisualQuestionSet);
+    AnsOpt[] ansOpts = new AnsOpt[orderedStrings.length];
+    for (int m = 0; m < orderedStrings.length; m++) {
+      ansOpts[m] = new AnsOptImg(orderedStrings[m], orderedImageUrls[m]);
+    }
+    return new QuestionSetVisual(qSetID, questionString, ansOpts, correctAnswer, qImageUrl);
   }
 
 
@@ -139,8 +115,8 @@ public class VisualXmlFileReader extends XmlFileReader {
 
 
         //print out all the answerStrings in order
-        for (int n = 0; n < qSetVisual.getMapOfAnsOpts().size(); n++) {
-          AnsOpt aOpt = qSetVisual.getMapOfAnsOpts().get(n);
+        for (int n = 0; n < qSetVisual.getNumOfAnsOpts(); n++) {
+          AnsOpt aOpt = qSetVisual.getAnsOptAt(n);
           if (aOpt instanceof AnsOptImg) {
             AnsOptImg aOptImg = (AnsOptImg) aOpt;
             System.out.print(Processing.ALPHABET[n] + ": " + aOptImg.getAnsOptString());
@@ -2,9 +2,7 @@ package fileReader;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -39,6 +37,8 @@ public abstract class XmlFileReader {
   
   //the resulting map of ALL question sets
   protected Map<Integer, QuestionSet> convertedQuestionSets;
+  //the number of question sets read so far by go() (only written by the thread running go())
+  private volatile int numOfReadQSets;
  
   
   /**
@@ -59,6 +59,23 @@ public abstract class XmlFileReader {
     this.convertedQuestionSets = new HashMap<>();
   }
 
+  /**
+   * Constructs an XmlFileReader for the given file (instead of the file named by Processing.FILE_NAME),
+   * and sets up the document elements ready for parsing. If the file cannot be set up, 
+   * it prints an error message to the console.
+   * @param file the xml file to be read
+   */
+  public XmlFileReader(File file) {
+    this.file = file;
+    this.convertedQuestionSets = new HashMap<>();
+    try {
+      this.setUpDocElements();
+    }
+    catch (Exception e) {
+      System.out.println("ERROR! File could not be set up: " + file);
+    }
+  }
+
   /**
    * Finds a file in the src/resources package.
    */
@@ -72,6 +89,14 @@ public abstract class XmlFileReader {
     }
   }
   
+  /**
+   * Returns the xml file found by findFile().
+   * @return the xml file to be read
+   */
+  protected File getFile() {
+    return this.file;
+  }
+  
   /**
    * Sets up the documents, ready for parsing, by creating a new Document builder and a Document
    * with the found file. Then filters all the questionSet elements and saves it to the 
@@ -101,10 +126,8 @@ public abstract class XmlFileReader {
   }
   
   /**
-   * Extracts the data from the xml file, by parsing through each of the questionSet elements
-   * and looking for the question id, question string, answer options, and the correct answer option.
-   * When extracting the information on answer options, this method is able to sort them in order, based on the
-   * id attribute given inside the a tag.
+   * Extracts the data from the xml file, by converting each of the questionSet elements
+   * into a QuestionSet object (see convertQuestionSetElement()).
    */
   public void go() {
     Map<Integer, QuestionSet> allQuestionSets = new HashMap<>();
@@ -119,67 +142,78 @@ public abstract class XmlFileReader {
         if (node.getNodeType() == Node.ELEMENT_NODE) {  
           Element qSet = (Element) node; 
           //-------
-          
-          
-          int qSetID;
-          String questionString;
-          List<String> answerStringList = new ArrayList<>();
-          int correctAnswer;
-
-          //save the questionSet's id, question string, and the correct answer index.
-          String qSetIDStr = qSet.getAttribute("id");
-          qSetID = Integer.parseInt(qSetIDStr);
-          questionString = qSet.getElementsByTagName("q").item(0).getTextContent();
-          String correctAnswerStr = qSet.getElementsByTagName("correct").item(0).getTextContent();
-          correctAnswer = Integer.parseInt(correctAnswerStr);
-        
-          //find all the answer options
-          NodeList aObjectsList = qSet.getElementsByTagName("a");
-          int numOfAnswerOptions = aObjectsList.getLength();
-
-          //indexes
-          int aOidWeAreLookingFor = 0; //the id of the answer option we are looking for
-          int jj = 0;   //the answer Option we are on while parsing
-          
-          //sorting unordered aO elements
-          while (jj <= numOfAnswerOptions - 1) {
-            Node aO = aObjectsList.item(jj); //starting from 0(jj)th aObject       
-            String aOid = aO.getAttributes().item(0).getTextContent(); //get the attribute (id specified inside the a tag)
-            if (aOid.equals(Integer.toString(aOidWeAreLookingFor))) {  //if this is the element we are looking for
-              answerStringList.add(aOidWeAreLookingFor, aO.getTextContent()); //add this to the list of answer strings
-              aOidWeAreLookingFor++; //look for the next id
-            }
-            else {
-              //if we have parsed through all answer options till the last element, and haven't found the matching id
-              //(can happen since we don't reset jj after finding the previous id)
-              if (jj == numOfAnswerOptions - 1 && answerStringList.size() < numOfAnswerOptions) {
-                jj = 0; //go back to the beginning of the answer options list
-              }
-              else { //we are not on the last element
-                jj++; //look at the next element
-              }
-            }
-          }
-          //add all list items to a map
-          Map<Integer, AnsOpt> mapOfAnsOpts = new HashMap<>();
-          for (int m = 0; m < answerStringList.size(); m++) {
-            String strToAdd = answerStringList.get(m);
-            AnsOpt aOToAdd = new AnsOptString(strToAdd);
-            mapOfAnsOpts.put(m, aOToAdd);
-          }
-          //construct a QuestionSet object with all the necessary information, converted to the right data type/object
-          QuestionSet qSetToAdd = new QuestionSetSimple(qSetID, questionString, mapOfAnsOpts, correctAnswer);
-          allQuestionSets.put(qSetID, qSetToAdd);
+          QuestionSet qSetToAdd = convertQuestionSetElement(qSet);
+          allQuestionSets.put(qSetToAdd.getId(), qSetToAdd);
+          countReadQSet();
         }
       }
     }
     catch (Exception e) {
-      System.out.println("ERROR! error converting question sets");
+      System.out.println("ERROR! error converting question sets: " + e.getMessage());
     }
     //save the resulting map to the final list
     this.convertedQuestionSets = allQuestionSets;
   }
+
+  /**
+   * Converts a single questionSet element into a QuestionSet object, by looking for the question id, 
+   * question string, answer options, and the correct answer option.
+   * When extracting the information on answer options, this method is able to sort them in order, based on the
+   * id attribute given inside the a tag.
+   * Subclasses that read more information override this method, so that each element is only parsed once.
+   * @param qSet the questionSet element to convert
+   * @return the resulting QuestionSet object
+   */
+  protected QuestionSet convertQuestionSetElement(Element qSet) {
+    int qSetID;
+    String questionString;
+    int correctAnswer;
+
+    //save the questionSet's id, question string, and the correct answer index.
+    String qSetIDStr = qSet.getAttribute("id");
+    qSetID = Integer.parseInt(qSetIDStr);
+    questionString = qSet.getElementsByTagName("q").item(0).getTextContent();
+    String correctAnswerStr = qSet.getElementsByTagName("correct").item(0).getTextContent();
+    correctAnswer = Integer.parseInt(correctAnswerStr);
+  
+    //find all the answer options
+    NodeList aObjectsList = qSet.getElementsByTagName("a");
+    int numOfAnswerOptions = aObjectsList.getLength();
+
+    //sort the unordered aO elements by their id attribute, in a single pass
+    AnsOptOrderer orderer = new AnsOptOrderer("a", numOfAnswerOptions);
+    orderer.reset(qSetID);
+    for (int jj = 0; jj < numOfAnswerOptions; jj++) {
+      Element aO = (Element) aObjectsList.item(jj);
+      orderer.add(aO.getAttribute("id"), aO.getTextContent());
+    }
+    String[] answerStrings = orderer.toOrderedArray();
+
+    //convert all answer strings to answer options, in order
+    AnsOpt[] ansOpts = new AnsOpt[answerStrings.length];
+    for (int m = 0; m < answerStrings.length; m++) {
+      ansOpts[m] = new AnsOptString(answerStrings[m]);
+    }
+    //construct a QuestionSet object with all the necessary information, converted to the right data type/object
+    return new QuestionSetSimple(qSetID, questionString, ansOpts, correctAnswer);
+  }
   
+  /**
+   * Counts one more question set read by go(). Must only be called by the thread running go().
+   */
+  protected void countReadQSet() {
+    this.numOfReadQSets++;
+  }
+
+  /**
+   * Returns the number of question sets read so far by go(), so that another thread can show the progress
+   * of the reading while go() is still running.
+   * @return the number of question sets read so far
+   */
+  public int getNumOfReadQSets() {
+    return this.numOfReadQSets;
+  }
+
   /**
    * Returns the map of converted question sets.
    * If go() has been called during the program, it will be a map of QuestionSet objects that have 
@@ -1,23 +1,43 @@
 package main;
-import java.util.ArrayList;
+import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
 
+import fileReader.CompiledXmlFileReader;
+import fileReader.MappedQuestionStore;
+import fileReader.ParallelBankLoader;
 import fileReader.SimpleXmlFileReader;
+import fileReader.StreamingXmlFileReader;
+import fileReader.VisualMetadataReader;
 import fileReader.VisualXmlFileReader;
 import fileReader.XmlFileReader;
 import model.AnsOpt;
-import model.Colors;
+import model.ArrayQuestionBank;
+import model.GameEngine;
 import model.Model;
 import model.Model.ModelMode;
+import model.QuestionBank;
 import model.QuestionSet;
 import model.TextSize;
+import model.Theme;
+import model.Theme.Role;
 import model.GameState;
 import model.Model;
 import processing.core.PApplet;
+import processing.core.PGraphics;
 import processing.core.PImage;
-import processing.core.PShape;
+import view.FontManager;
+import view.FrameProfiler;
+import view.FrameProfiler.Stage;
+import view.ImageAtlas;
+import view.ImageCache;
+import view.ImagePrefetcher;
+import view.LayerCache;
+import view.ScreenLayout;
+import view.ScreenLayout.Element;
+import view.TextLayoutCache;
 
 
 
@@ -46,12 +66,68 @@ public class Processing extends PApplet {
   public final static double DIVISOR = 1.0; 
   //----------------------------------------------------------------------------------------------
   //----------------------------------------------------------------------------------------------
+  //  set USE_STREAMING_READER to true to stream the xml file question by question (StAX),
+  //  instead of building a DOM of the whole file (recommended for very large files)
+  public final static boolean USE_STREAMING_READER = false;
+  //  set USE_COMPILED_BANK to true to load the question sets from a compiled (binary) bank file,
+  //  which is (re)compiled automatically whenever the xml file is newer (overrides USE_STREAMING_READER)
+  public final static boolean USE_COMPILED_BANK = false;
+  //  set USE_MAPPED_STORE to true to memory-map the compiled bank file, and only decode each question set
+  //  when it is shown, instead of loading all of them onto the heap (overrides USE_COMPILED_BANK)
+  public final static boolean USE_MAPPED_STORE = false;
+  //  set BANK_FILES to a directory or a glob (e.g. "src/resources/*.xml") to load several xml files in parallel
+  //  and play all of their questions, one file after the other, instead of FILE_NAME (overrides the readers above)
+  public final static String BANK_FILES = null;
+  //----------------------------------------------------------------------------------------------
+  //----------------------------------------------------------------------------------------------
+  //  manipulate the IMAGE_CACHE_BYTES constant to change the memory budget for decoded images
+  public final static long IMAGE_CACHE_BYTES = ImageCache.DEFAULT_BYTE_BUDGET;
+  //  manipulate the PREFETCH_LOOKAHEAD constant to change how many upcoming questions
+  //  have their images decoded in the background
+  public final static int PREFETCH_LOOKAHEAD = 2;
+  //----------------------------------------------------------------------------------------------
+  //----------------------------------------------------------------------------------------------
+  //  set PROFILE_FRAMES to true to time every frame and its stages, and to print the percentiles
+  //  to the console and write the last frames to the PROFILE_CSV file when the sketch exits
+  public final static boolean PROFILE_FRAMES = false;
+  public final static String PROFILE_CSV = "frame_profile.csv";
+  //----------------------------------------------------------------------------------------------
+  //----------------------------------------------------------------------------------------------
+  //  set REDRAW_ON_DEMAND to false to repaint the whole screen at every frame,
+  //  instead of only drawing a frame when the game state or a hover state changed
+  public final static boolean REDRAW_ON_DEMAND = true;
+  //  set CACHE_STATIC_LAYERS to false to draw the static parts of each screen (backgrounds, pop up boxes, titles)
+  //  call by call, instead of rendering them once into offscreen layers that are copied onto the canvas
+  public final static boolean CACHE_STATIC_LAYERS = true;
+  //  set USE_FONT_MANAGER to false to switch text sizes with textSize(), which scales the glyphs of one font,
+  //  instead of switching to a font created at each text size with textFont() (compare both with PROFILE_FRAMES)
+  public final static boolean USE_FONT_MANAGER = true;
+  //----------------------------------------------------------------------------------------------
   //---------------------------------------------------------------------------------------------- 
 
   //canvas dimensions
   public final static int CANVAS_X = (int)(1280/DIVISOR);
   public final static int CANVAS_Y = (int)(720/DIVISOR);
 
+  //the on-screen sizes of the question image and the answer option images
+  public final static int Q_IMG_SIZE = CANVAS_X/4;
+  public final static int ANS_IMG_SIZE = (int)(CANVAS_Y/10.8);
+  //the width the question string is wrapped to (the left box, without its margins)
+  public final static int Q_TEXT_BOX_WIDTH = (int)((CANVAS_X/3)*0.8);
+
+  //CONSTANTS for answer option rows (long rect: textbox, short rect: square with the letter/image)
+  public final static float ANS_ROW_X = (float)(CANVAS_X-(CANVAS_X/3));
+  public final static float ANS_ROW_WIDTH = CANVAS_Y;
+  public final static float ANS_ROW_HEIGHT = (float)(CANVAS_Y/10.8);
+  public final static int ANS_ROW_Y_START = (int)((CANVAS_Y/5) + (ANS_ROW_HEIGHT/2)); //center offSet
+  public final static int ANS_ROW_Y_GAP = (int)(CANVAS_Y/10.8) + (CANVAS_Y/18);
+
+  //CONSTANTS for pop ups (centered on the canvas), and the layer covering them (with a margin for the stroke)
+  public final static float POPUP_WIDTH = (float)(CANVAS_X/1.5);
+  public final static float POPUP_HEIGHT = (float)(CANVAS_Y/2);
+  public final static int POPUP_LAYER_X = (int)((CANVAS_X/2)-(POPUP_WIDTH/2)) - 1;
+  public final static int POPUP_LAYER_Y = (int)((CANVAS_Y/2)-(POPUP_HEIGHT/2)) - 1;
+
   //the Alphabet (used for answer option labels)
   public final static String[] ALPHABET = new String[]{"A", "B", "C", "D", "E", "F", "G", "H", 
       "I", "J", "K", "L", "M", "N", "O", "P", "Q", "R", "S", "T", "U", "V", "W", "X", "Y", "Z"};
@@ -60,21 +136,69 @@ public class Processing extends PApplet {
   public final static int BTN_WIDTH = CANVAS_X/8;
   public final static int BTN_HEIGHT = CANVAS_Y/15;
   public final static int TEXT_Y_ADJUSTMENT = BTN_HEIGHT/24;
+  //the centers of the buttons: left/center/right of the row under the title, and the RESET button in the top right
+  public final static int BTN_LEFT_X = (int)((CANVAS_X/2)-(BTN_WIDTH/1.5));
+  public final static int BTN_CENTER_X = CANVAS_X/2;
+  public final static int BTN_RIGHT_X = (int)((CANVAS_X/2)+(BTN_WIDTH/1.5));
+  public final static int BTN_ROW_Y = CANVAS_Y/2 + BTN_HEIGHT;
+  public final static int BTN_RESET_X = CANVAS_X-((BTN_WIDTH/2) + CANVAS_X/60);
+  public final static int BTN_RESET_Y = (int)(CANVAS_Y-(CANVAS_Y/8)*7.5);
   public final static int BTN_TEXTSIZE = TextSize.MEDIUM;
-  public final static int[] BTN_COLOR_TEXT = Colors.WHITE;
-  public final static int[] BTN_COLOR_START = Colors.BRICK;
-  public final static int[] BTN_COLOR_STARTHOVER = Colors.BRICKHOVER;
-  public final static int[] BTN_COLOR_RESET = Colors.BRICK;
-  public final static int[] BTN_COLOR_RESETHOVER = Colors.BRICKHOVER;
-  public final static int[] BTN_COLOR_NEXTQ = Colors.PURPLE_DARKEST;
-  public final static int[] BTN_COLOR_NEXTQHOVER = Colors.PURPLE_DARKESTHOVER;
-
-  //the buttons
-  PShape btnVisual, btnSimple, btnStart, btnNextQ, btnReset, btnResetCancel, btnResetConfirm;
 
-  //the model.
-  private Model model;
-  public Model.ModelMode modelMode;
+  //the name of the loaded file (FILE_NAME, unless another one was given, e.g. by a benchmark)
+  private final String fileName;
+  //the folder containing the images of the loaded file
+  //(the image urls of merged files already start with the image folder of their file)
+  private final String imageDir;
+  //whether to time every frame and its stages (PROFILE_FRAMES, unless set by a benchmark)
+  private final boolean profileFrames;
+  //whether to switch text sizes with the fonts of a FontManager (USE_FONT_MANAGER, unless set by a benchmark)
+  private final boolean useFontManager;
+
+  //the colors of every element of the screens (see setTheme())
+  private Theme theme = Theme.DEFAULT;
+
+  //the game, played on the loaded model (an empty game, shown on the intro screen, until the bank is loaded)
+  private GameEngine engine;
+  //whether the bank is still being loaded in the background (see startLoading())
+  private boolean loading = true;
+  //written by the loading thread: the game once its bank is loaded, and the number of question sets read so far
+  private volatile GameEngine loadedEngine;
+  private volatile FontManager loadedFonts;
+  private volatile IntSupplier loadProgress = () -> 0;
+  private volatile boolean loadFailed;
+  //written by the image loading thread: the question sets with their images, once the VISUAL mode was chosen,
+  //  and the image atlas built for them (see startLoadingImages())
+  private boolean imagesLoadStarted;
+  private volatile QuestionBank loadedVisualBank;
+  private volatile ImageAtlas loadedImageAtlas;
+  private volatile boolean imagesLoadFailed;
+
+  //the decoded images, so that they are only loaded from the disk once
+  private ImageCache imageCache;
+  //decodes the images of the upcoming questions in the background
+  private ImagePrefetcher imagePrefetcher;
+  //the images pre-scaled to their on-screen sizes (only used on the render thread, see startLoadingImages())
+  private ImageAtlas imageAtlas;
+  //times the frames and their stages (does nothing unless PROFILE_FRAMES)
+  private FrameProfiler frameProfiler;
+  //the question strings wrapped into lines, so that they are only wrapped once
+  private TextLayoutCache textLayoutCache;
+  //a font per text size (created again with the characters of the bank once it is loaded, see createFonts())
+  private FontManager fonts;
+  //the static parts of the screens, rendered once per game state (only used if CACHE_STATIC_LAYERS)
+  private LayerCache<GameState> layerCache;
+
+  //the areas of the buttons and answer option rows of the current screen, only built when the screen changes
+  private ScreenLayout layout;
+  private GameState layoutState;
+  private int layoutQSetIdx = -1;
+  //the area the mouse is over in the frame being drawn
+  private int hoveredArea = ScreenLayout.NONE;
+
+  //what is currently on the canvas (for REDRAW_ON_DEMAND): the game state and the hovered area
+  private GameState drawnState;
+  private int drawnHoveredArea = ScreenLayout.NONE;
 
 
 
@@ -83,6 +207,38 @@ public class Processing extends PApplet {
   //SETUP------------------------------------------------------------------------------------------
   //-----------------------------------------------------------------------------------------------
 
+  /**
+   * Constructs the sketch of the game, playing the file named by FILE_NAME.
+   */
+  public Processing() {
+    this(FILE_NAME, PROFILE_FRAMES);
+  }
+
+  /**
+   * Constructs the sketch of the game, playing the given file of the resources folder 
+   * (e.g. to be drawn offscreen by a benchmark, see HeadlessFrameBenchmark).
+   * @param fileName the name of the xml file, without its extension
+   * @param profileFrames whether to time every frame and its stages
+   */
+  public Processing(String fileName, boolean profileFrames) {
+    this(fileName, profileFrames, USE_FONT_MANAGER);
+  }
+
+  /**
+   * Constructs the sketch of the game, playing the given file of the resources folder,
+   * and switching text sizes as given (so that a benchmark can compare both, see USE_FONT_MANAGER).
+   * @param fileName the name of the xml file, without its extension
+   * @param profileFrames whether to time every frame and its stages
+   * @param useFontManager whether to switch text sizes with textFont(), instead of textSize()
+   */
+  public Processing(String fileName, boolean profileFrames, boolean useFontManager) {
+    this.fileName = fileName;
+    this.imageDir = BANK_FILES == null ? "src/resources/" + fileName + "_images/"
+        : ParallelBankLoader.baseDirOf(BANK_FILES) + "/";
+    this.profileFrames = profileFrames;
+    this.useFontManager = useFontManager;
+  }
+
   /**
    * This function will set up the initial canvas by running once when the program starts.
    */
@@ -94,65 +250,279 @@ public class Processing extends PApplet {
    * This function will set up all variables by running once when the program starts.
    */
   public void setup() {
-    this.model = createModel();
-    consolePrintQuestionSets();
-    background(color(Colors.PURPLE[0],Colors.PURPLE[1],Colors.PURPLE[2]));
+    this.imageCache = new ImageCache(this, IMAGE_CACHE_BYTES);
+    this.imagePrefetcher = new ImagePrefetcher(this);
+    this.imageAtlas = new ImageAtlas(this);
+    this.frameProfiler = new FrameProfiler(profileFrames, imageCache::getMisses);
+    this.textLayoutCache = new TextLayoutCache(this::textWidth);
+    this.layerCache = new LayerCache<>(this, this::renderStaticLayer);
+    this.fonts = createFonts(new FontManager.Glyphs());
+    this.engine = new GameEngine(new Model(new ArrayQuestionBank(new QuestionSet[0])), false);
+    startLoading();
+    background(theme.get(Role.BACKGROUND));
     textAlign(CENTER,CENTER);
     rectMode(CENTER);
     imageMode(CENTER);
-    this.btnSimple = createShape();
-    this.btnVisual = createShape();
-    this.btnStart = createShape();
-    this.btnReset = createShape();
-    this.btnNextQ = createShape();
-    this.btnResetCancel = createShape();
-    this.btnResetConfirm = createShape();
+    if (REDRAW_ON_DEMAND) {
+      //draw() only runs when redraw() is called (or while images are being decoded)
+      noLoop();
+    }
+  }
+
+  /**
+   * Starts loading the bank on a background thread, so that the intro screen is shown right away.
+   * The loaded game is handed over to the render thread at the start of a frame (see draw()),
+   * and the mode buttons are disabled until then.
+   * Only the text of the question sets is loaded: their images are only loaded once the VISUAL mode is chosen
+   * (see startLoadingImages()).
+   */
+  private void startLoading() {
+    Thread loader = new Thread(() -> {
+      try {
+        GameEngine loaded = createEngine();
+        //the question sets are only scanned for their characters if fonts are created
+        //  (a mapped bank would otherwise decode every one of them, see USE_MAPPED_STORE)
+        this.loadedFonts = createFonts(useFontManager ? glyphsOf(loaded) : new FontManager.Glyphs());
+        this.loadedEngine = loaded;
+        consolePrintQuestionSets(loaded);
+      }
+      catch (RuntimeException e) {
+        System.out.println("ERROR! question bank could not be loaded: " + e.getMessage());
+        this.loadFailed = true;
+      }
+    }, "bank-loader");
+    loader.setDaemon(true);
+    loader.start();
+  }
+
+  /**
+   * Starts loading the images of the question sets on a background thread, once the VISUAL mode was chosen:
+   * their image urls are read and attached to the loaded question sets, and the images are packed into a new image atlas.
+   * The question sets with their images and the atlas are handed over to the render thread at the start of a frame 
+   * (see draw()), and the START button is disabled until then. Does nothing if the images are already being loaded.
+   */
+  private void startLoadingImages() {
+    if (imagesLoadStarted) {
+      return;
+    }
+    imagesLoadStarted = true;
+    QuestionBank textBank = engine.getQuestionBank();
+    Thread loader = new Thread(() -> {
+      try {
+        QuestionBank visualBank = loadVisualBank(textBank);
+        //the atlas is published before the question sets, which the render thread checks first
+        this.loadedImageAtlas = buildImageAtlas(visualBank);
+        this.loadedVisualBank = visualBank;
+      }
+      catch (IOException | RuntimeException e) {
+        System.out.println("ERROR! images could not be loaded: " + e.getMessage());
+        this.imagesLoadFailed = true;
+      }
+    }, "image-loader");
+    loader.setDaemon(true);
+    loader.start();
+  }
+
+  /**
+   * Reads the image urls of the loaded file, and returns the given question sets with their images.
+   * The BANK_FILES are read again with their images, as their ids were renumbered when they were merged.
+   * Runs on the image loading thread.
+   * @param textBank the question sets loaded without images
+   * @return the same question sets, with their images
+   * @throws IOException if the file could not be read
+   */
+  private QuestionBank loadVisualBank(QuestionBank textBank) throws IOException {
+    if (BANK_FILES != null) {
+      return ParallelBankLoader.load(BANK_FILES, true).getQuestionBank();
+    }
+    File xmlFile = new File("src/resources/" + fileName + ".xml");
+    if (USE_MAPPED_STORE) {
+      try {
+        return MappedQuestionStore.open(xmlFile, true);
+      }
+      catch (IOException e) {
+        System.out.println("ERROR! compiled bank could not be mapped: " + e.getMessage());
+      }
+    }
+    return new VisualMetadataReader(xmlFile).attachTo(textBank);
   }
 
   /**
-   * Creates a model depending on the specified model mode,
-   *  after creating a file reader that is fed into the model.
-   * @return a Model object of the specified model mode.
+   * Creates the game engine, playing on a model of the loaded file, read without images.
+   * Runs on the loading thread, and counts the question sets read so far into loadProgress.
+   * The visual mode is only available if the loaded file is not a text-only file (or if none of the BANK_FILES is).
+   * @return the game engine
    */
-  private Model createModel() {
+  private GameEngine createEngine() {
+    if (BANK_FILES != null) {
+      //the visual mode is only available if none of the files is text only
+      boolean visual = true;
+      for (File file : ParallelBankLoader.findFiles(BANK_FILES)) {
+        visual = visual && !file.getName().contains("textOnly");
+      }
+      LongAdder progress = new LongAdder();
+      this.loadProgress = progress::intValue;
+      ParallelBankLoader.Result result = ParallelBankLoader.load(BANK_FILES, false, progress);
+      result.consolePrintReport();
+      return new GameEngine(new Model(result.getQuestionBank()), visual, false);
+    }
+    boolean visual = !fileName.contains("textOnly");
+    return new GameEngine(createModel(false), visual, false);
+  }
+
+  /**
+   * Creates a font for each text size, with the glyphs of the given characters rendered up front.
+   * @param glyphs the characters that can be shown
+   * @return the fonts
+   */
+  private FontManager createFonts(FontManager.Glyphs glyphs) {
+    int[] sizes = new int[] {TextSize.SMALL, TextSize.MEDIUM, TextSize.LARGE};
+    return new FontManager(useFontManager, FontManager.DEFAULT_FONT_NAME, sizes, glyphs);
+  }
+
+  /**
+   * Returns the characters of the question and answer strings of the given game, and of the screens themselves.
+   * Runs on the loading thread.
+   * @param engine the loaded game
+   * @return the characters that can be shown
+   */
+  private FontManager.Glyphs glyphsOf(GameEngine engine) {
+    FontManager.Glyphs glyphs = new FontManager.Glyphs();
+    for (int q = 0; q < engine.getNumOfQSets(); q++) {
+      QuestionSet qSet = engine.getQSetAt(q);
+      glyphs.add(qSet.getQString());
+      for (int i = 0; i < qSet.getNumOfAnsOpts(); i++) {
+        glyphs.add(qSet.getAnsOptAt(i).getAnsOptString());
+      }
+    }
+    return glyphs;
+  }
+
+  /**
+   * Creates a model of the loaded file, after creating a file reader that is fed into the model.
+   * @param visual whether the question sets should be read with their images
+   * @return a Model object of the loaded file.
+   */
+  private Model createModel(boolean visual) {
     XmlFileReader reader;
-    if (FILE_NAME.contains("textOnly")) {
-      modelMode = ModelMode.SIMPLE;
-      reader = new SimpleXmlFileReader();
+    File xmlFile = new File("src/resources/" + fileName + ".xml");
+    if (USE_MAPPED_STORE) {
+      try {
+        return new Model(MappedQuestionStore.open(xmlFile, visual));
+      }
+      catch (IOException e) {
+        System.out.println("ERROR! compiled bank could not be mapped: " + e.getMessage());
+      }
+    }
+    if (USE_COMPILED_BANK || USE_MAPPED_STORE) {
+      reader = new CompiledXmlFileReader(xmlFile, visual);
+    }
+    else if (!visual) {
+      reader = USE_STREAMING_READER ? new StreamingXmlFileReader(xmlFile, false) : new SimpleXmlFileReader(xmlFile);
     }
     else {
-      modelMode = ModelMode.VISUAL;
-      reader = new VisualXmlFileReader();
+      reader = USE_STREAMING_READER ? new StreamingXmlFileReader(xmlFile, true) : new VisualXmlFileReader(xmlFile);
     }
+    this.loadProgress = reader::getNumOfReadQSets;
     return new Model(reader);
   }
 
   /**
-   * Prints all the data within the map of question sets contained in the model, to the console.
+   * Prints all the data within the map of question sets contained in the model of the given game, to the console
+   * (with their image urls, if they are loaded).
+   * @param engine the loaded game
    */
-  private void consolePrintQuestionSets() {
-    for (int q = 0; q < model.getAllQSets().size(); q++) {
-      System.out.println("ID: " + model.getQSetAt(q).getId());
-      System.out.print(model.getQSetAt(q).getQString());
-      if (modelMode == ModelMode.VISUAL) {
+  private void consolePrintQuestionSets(GameEngine engine) {
+    for (int q = 0; q < engine.getNumOfQSets(); q++) {
+      System.out.println("ID: " + engine.getQSetAt(q).getId());
+      System.out.print(engine.getQSetAt(q).getQString());
+      if (engine.isVisualLoaded()) {
         System.out.print(" (imageUrl: ");
-        System.out.print(model.getQSetAt(q).getQuestionImageUrl() + ")");
+        System.out.print(engine.getQSetAt(q).getQuestionImageUrl() + ")");
       }
       System.out.println();
-      for (int i = 0; i < model.getQSetAt(q).getMapOfAnsOpts().size(); i++) {
+      for (int i = 0; i < engine.getQSetAt(q).getNumOfAnsOpts(); i++) {
         System.out.print(ALPHABET[i] + ": ");
-        System.out.print(model.getQSetAt(q).getMapOfAnsOpts().get(i).getAnsOptString());
-        if (modelMode == ModelMode.VISUAL) {
+        System.out.print(engine.getQSetAt(q).getAnsOptAt(i).getAnsOptString());
+        if (engine.isVisualLoaded()) {
           System.out.print(" (imageUrl: ");
-          System.out.print(model.getQSetAt(q).getMapOfAnsOpts().get(i).getAnsOptImageUrl() + ")");
+          System.out.print(engine.getQSetAt(q).getAnsOptAt(i).getAnsOptImageUrl() + ")");
         }
         System.out.println();
       }
-      System.out.println("correct: " + ALPHABET[model.getQSetAt(q).getCorrectAnsOptIdx()]);
+      System.out.println("correct: " + ALPHABET[engine.getQSetAt(q).getCorrectAnsOptIdx()]);
       System.out.println();
     }
   }
 
+  /**
+   * Submits the images of the current question set, and of the next PREFETCH_LOOKAHEAD question sets,
+   * to be decoded in the background. Does nothing if the game is not in visual mode.
+   */
+  private void prefetchUpcomingImages() {
+    if (engine.getMode() != ModelMode.VISUAL) {
+      return;
+    }
+    int lastIdx = Math.min(engine.getCurrentQuestionSetIdx() + PREFETCH_LOOKAHEAD, engine.getNumOfQSets() - 1);
+    for (int q = engine.getCurrentQuestionSetIdx(); q <= lastIdx; q++) {
+      QuestionSet qSet = engine.getQSetAt(q);
+      prefetchImage(qSet.getQuestionImageUrl(), Q_IMG_SIZE);
+      for (int i = 0; i < qSet.getNumOfAnsOpts(); i++) {
+        prefetchImage(qSet.getAnsOptAt(i).getAnsOptImageUrl(), ANS_IMG_SIZE);
+      }
+    }
+  }
+
+  /**
+   * Submits the image with the given url to be decoded in the background,
+   * unless it has already been pre-scaled into the image atlas at the given size.
+   * @param url the url of the image, relative to the image folder
+   * @param size the on-screen size of the image
+   */
+  private void prefetchImage(String url, int size) {
+    String path = imageDir + url;
+    if (imageAtlas.get(ImageAtlas.keyOf(path, size, size)) == null) {
+      imagePrefetcher.prefetch(path, imageCache);
+    }
+  }
+
+  /**
+   * Resizes every question and answer option image of the given question sets to its on-screen size, 
+   * and packs them into a new image atlas, until the atlas is full.
+   * The full resolution images are not kept after being packed.
+   * Runs on the image loading thread: the atlas is only handed over to the render thread once it is complete,
+   * as an ImageAtlas is not thread-safe.
+   * @param visualBank the question sets with their images
+   * @return the image atlas
+   */
+  private ImageAtlas buildImageAtlas(QuestionBank visualBank) {
+    ImageAtlas atlas = new ImageAtlas(this);
+    for (int q = 0; q < visualBank.size() && !atlas.isFull(); q++) {
+      QuestionSet qSet = visualBank.getQSetAt(q);
+      addToImageAtlas(atlas, qSet.getQuestionImageUrl(), Q_IMG_SIZE);
+      for (int i = 0; i < qSet.getNumOfAnsOpts(); i++) {
+        addToImageAtlas(atlas, qSet.getAnsOptAt(i).getAnsOptImageUrl(), ANS_IMG_SIZE);
+      }
+    }
+    System.out.println("image atlas: " + atlas.size() + " images on " + atlas.getNumOfPages() + " page(s)");
+    return atlas;
+  }
+
+  /**
+   * Loads the image with the given url and packs it into the given image atlas at the given size,
+   * if it is not there already.
+   * @param atlas the image atlas being built
+   * @param url the url of the image, relative to the image folder
+   * @param size the on-screen size of the image
+   */
+  private void addToImageAtlas(ImageAtlas atlas, String url, int size) {
+    String path = imageDir + url;
+    String key = ImageAtlas.keyOf(path, size, size);
+    if (atlas.get(key) == null && !atlas.isFull()) {
+      atlas.add(key, loadImage(path), size, size);
+    }
+  }
+
 
 
 
@@ -163,124 +533,414 @@ public class Processing extends PApplet {
 
   /**
    * This method is executed repeatedly to draw onto the canvas at every frame.
+   * With REDRAW_ON_DEMAND, it is only executed when something changed (see mouseMoved() and mouseClicked()):
+   * the whole screen is only repainted when the game state changed, otherwise only the answer option row 
+   * or button that the mouse left and the one it moved onto are repainted over the previous frame.
+   * The hovered area is looked up once per frame, in the layout of the current screen (see currentLayout()).
+   * While the bank is loading, the intro screen is repainted at every frame with the loading progress
+   * (and so is the START screen while the images are loading).
    */
   public void draw() {
+    //hand over the loaded game, and repaint the whole screen with it
+    if (loading && loadedEngine != null) {
+      engine = loadedEngine;
+      fonts = loadedFonts;
+      loading = false;
+      drawnState = null;
+    }
+    //hand over the question sets with their images, and their image atlas
+    if (loadedVisualBank != null && !engine.isVisualLoaded()) {
+      imageAtlas = loadedImageAtlas;
+      engine.attachVisualBank(loadedVisualBank);
+      prefetchUpcomingImages();
+      drawnState = null;
+    }
+    frameProfiler.beginFrame(loading ? "LOADING" : engine.getState().name());
+    //hand over the images that finished decoding in the background
+    imagePrefetcher.drainInto(imageCache);
+
+    GameState state = engine.getState();
+    this.layout = currentLayout();
+    //nothing can be hovered (or clicked) while loading
+    this.hoveredArea = loading ? ScreenLayout.NONE : layout.hitTest(mouseX, mouseY);
+    //(the whole intro screen is repainted while the loading progress changes)
+    if (!REDRAW_ON_DEMAND || state != drawnState || loading || imagesPending()) {
+      //a pop up only covers the screen under it, which is not on the canvas yet after a full repaint was asked for
+      if (drawnState == null) {
+        drawScreensBelow(state);
+      }
+      drawScreen(state);
+      frameProfiler.begin(Stage.BUTTONS);
+      drawButtons(state, ScreenLayout.NONE);
+      frameProfiler.end(Stage.BUTTONS);
+    }
+    else if (hoveredArea != drawnHoveredArea) {
+      //only the hover state changed
+      drawArea(state, drawnHoveredArea);
+      drawArea(state, hoveredArea);
+    }
+    drawnState = state;
+    drawnHoveredArea = hoveredArea;
 
-    switch (model.getState()) {
+    //keep drawing frames only while the bank is loading or images are still being decoded, so that they are handed over
+    if (REDRAW_ON_DEMAND) {
+      if (loading || imagesPending() || imagePrefetcher.getPendingCount() > 0) {
+        loop();
+      }
+      else {
+        noLoop();
+      }
+    }
+    frameProfiler.endFrame();
+  }
+
+  /**
+   * Draws the whole screen of the given game state, except for its buttons.
+   * The static part of the screen is drawn first (see drawStaticLayer()), then what changes during the game over it.
+   * @param state the game state to draw
+   */
+  private void drawScreen(GameState state) {
+    switch (state) {
 
       case INTRO_CHOOSEMODE:
-        background(color(Colors.PURPLE[0],Colors.PURPLE[1],Colors.PURPLE[2]));
-        //title
-        fill(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-        stroke(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-        textSize(BTN_TEXTSIZE);
-        text("Trivia!", CANVAS_X/2, CANVAS_Y/2 - (2*BTN_HEIGHT));
+        drawStaticLayer(state);
         //draw the choose mode msg
         drawModeMsg();
-        //reset-CANCEL button
-        drawButton(this.btnSimple, (int)((CANVAS_X/2)-(BTN_WIDTH/1.5)), CANVAS_Y/2 + BTN_HEIGHT,
-            Colors.PURPLE_DARKER[0], Colors.PURPLE_DARKER[1], Colors.PURPLE_DARKER[2], 
-            Colors.PURPLE_DARKERHOVER[0], Colors.PURPLE_DARKERHOVER[1], Colors.PURPLE_DARKERHOVER[2], 
-            "TEXT-ONLY", BTN_COLOR_TEXT[0], BTN_COLOR_TEXT[1], BTN_COLOR_TEXT[2]);
-        //reset-CONFIRM button
-        if (FILE_NAME.contains("textOnly")) {
-          drawButton(this.btnVisual, (int)((CANVAS_X/2)+(BTN_WIDTH/1.5)), CANVAS_Y/2 + BTN_HEIGHT,
-              Colors.GREY[0], Colors.GREY[1], Colors.GREY[2], 
-              Colors.GREY[0], Colors.GREY[1], Colors.GREY[2], 
-              "(DISABLED)", BTN_COLOR_TEXT[0], BTN_COLOR_TEXT[1], BTN_COLOR_TEXT[2]);
-        }
-        else {
-          drawButton(this.btnVisual, (int)((CANVAS_X/2)+(BTN_WIDTH/1.5)), CANVAS_Y/2 + BTN_HEIGHT,
-              Colors.PURPLE_DARKER[0], Colors.PURPLE_DARKER[1], Colors.PURPLE_DARKER[2], 
-              Colors.PURPLE_DARKERHOVER[0], Colors.PURPLE_DARKERHOVER[1], Colors.PURPLE_DARKERHOVER[2], 
-              "VISUAL", BTN_COLOR_TEXT[0], BTN_COLOR_TEXT[1], BTN_COLOR_TEXT[2]);
-        }
         break;//-----------------------------------------------------------------------------------
 
       case INTRO_START: 
-        background(color(Colors.PURPLE[0],Colors.PURPLE[1],Colors.PURPLE[2]));
-        //title
-        fill(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-        stroke(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-        textSize(BTN_TEXTSIZE);
-        text("Trivia!", CANVAS_X/2, CANVAS_Y/2 - (2*BTN_HEIGHT));
+        drawStaticLayer(state);
         drawModeMsg();
-        //START button
-        drawButton(this.btnStart, CANVAS_X/2, CANVAS_Y/2 + BTN_HEIGHT,
-            Colors.PURPLE_DARKEST[0], Colors.PURPLE_DARKEST[1], Colors.PURPLE_DARKEST[2], 
-            Colors.PURPLE_DARKESTHOVER[0], Colors.PURPLE_DARKESTHOVER[1], Colors.PURPLE_DARKESTHOVER[2],
-            "START", BTN_COLOR_TEXT[0], BTN_COLOR_TEXT[1], BTN_COLOR_TEXT[2]);
-        //RESET button
-        drawButton(this.btnReset, CANVAS_X-((BTN_WIDTH/2) + CANVAS_X/60), (int)(CANVAS_Y-(CANVAS_Y/8)*7.5),
-            BTN_COLOR_START[0], BTN_COLOR_START[1], BTN_COLOR_START[2], 
-            BTN_COLOR_STARTHOVER[0], BTN_COLOR_STARTHOVER[1], BTN_COLOR_STARTHOVER[2],
-            "RESET", BTN_COLOR_TEXT[0], BTN_COLOR_TEXT[1], BTN_COLOR_TEXT[2]);
         break;//-----------------------------------------------------------------------------------
 
       case QUESTION_SCREEN:
-        background(color(Colors.PURPLE[0],Colors.PURPLE[1],Colors.PURPLE[2]));
-        drawSectionBackgrounds();
+        frameProfiler.begin(Stage.SECTION_BACKGROUNDS);
+        drawStaticLayer(state);
+        frameProfiler.end(Stage.SECTION_BACKGROUNDS);
         //current score
         drawCurrentScore();
         //current questionSet
-        QuestionSet currentQSet = model.getQSetAt(model.getCurrentQuestionSetIdx());
+        QuestionSet currentQSet = engine.getCurrentQSet();
         //current question number
         drawQuestionNumber(currentQSet.getId());
         //current question String
-        drawQuestionString(currentQSet.getQString());
+        frameProfiler.begin(Stage.QUESTION_STRING);
+        drawQuestionString(currentQSet);
+        frameProfiler.end(Stage.QUESTION_STRING);
         //current question image
+        frameProfiler.begin(Stage.Q_IMAGE_SQUARE);
         drawQImageSquare(currentQSet);
+        frameProfiler.end(Stage.Q_IMAGE_SQUARE);
         //current answer options
-        drawAnsOpts(currentQSet.getMapOfAnsOpts());
-        //RESET button
-        drawButton(this.btnReset, CANVAS_X-((BTN_WIDTH/2) + CANVAS_X/60), (int)(CANVAS_Y-(CANVAS_Y/8)*7.5),
-            BTN_COLOR_START[0], BTN_COLOR_START[1], BTN_COLOR_START[2], 
-            BTN_COLOR_STARTHOVER[0], BTN_COLOR_STARTHOVER[1], BTN_COLOR_STARTHOVER[2],
-            "RESET", BTN_COLOR_TEXT[0], BTN_COLOR_TEXT[1], BTN_COLOR_TEXT[2]);
+        frameProfiler.begin(Stage.ANS_OPTS);
+        drawAnsOpts(currentQSet);
+        frameProfiler.end(Stage.ANS_OPTS);
+        break;//-----------------------------------------------------------------------------------
+
+      case POPUP_CORRECT:
+        //correct message pop up
+        frameProfiler.begin(Stage.POPUPS);
+        drawStaticLayer(state);
+        frameProfiler.end(Stage.POPUPS);
+        break;//-----------------------------------------------------------------------------------
+
+      case POPUP_INCORRECT:
+        //incorrect message pop up, with the correct answer
+        frameProfiler.begin(Stage.POPUPS);
+        drawStaticLayer(state);
+        drawCorrectAnsMsg();
+        frameProfiler.end(Stage.POPUPS);
+        break;//-----------------------------------------------------------------------------------
+
+      case POPUP_RESET:
+        frameProfiler.begin(Stage.POPUPS);
+        drawStaticLayer(state);
+        frameProfiler.end(Stage.POPUPS);
+        break;//-----------------------------------------------------------------------------------
+
+      case FINAL:
+        drawStaticLayer(state);
+        //final score
+        drawFinalScore();
+        break;//-----------------------------------------------------------------------------------
+
+      default:
+        throw new IllegalStateException("nonexistent game state");
+    }
+  }
+
+  /**
+   * Draws the screens covered by the pop up of the given game state, with their buttons (not hovered), 
+   * so that the pop up can be drawn over them: e.g. the question screen under the correct pop up,
+   * after the theme was changed. Does nothing if the given game state is not a pop up.
+   * @param state the current game state
+   */
+  private void drawScreensBelow(GameState state) {
+    GameState below = screenBelow(state);
+    if (below == null) {
+      return;
+    }
+    drawScreensBelow(below);
+    //the answer option rows and buttons of the covered screen are in its own layout
+    ScreenLayout popUpLayout = layout;
+    int popUpHoveredArea = hoveredArea;
+    layout = buildLayout(below, below == GameState.QUESTION_SCREEN ? engine.getCurrentQSet().getNumOfAnsOpts() : 0);
+    hoveredArea = ScreenLayout.NONE;
+    drawScreen(below);
+    drawButtons(below, ScreenLayout.NONE);
+    layout = popUpLayout;
+    hoveredArea = popUpHoveredArea;
+  }
+
+  /**
+   * Returns the game state whose screen is covered by the pop up of the given game state.
+   * @param state the game state
+   * @return the covered game state, or null if the given game state is not a pop up
+   */
+  private GameState screenBelow(GameState state) {
+    switch (state) {
+      case POPUP_CORRECT:
+      case POPUP_INCORRECT:
+        return GameState.QUESTION_SCREEN;
+      case POPUP_RESET:
+        return engine.getStateBeforeReset();
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Draws the static part of the screen of the given game state: copied from its pre-rendered layer 
+   * if CACHE_STATIC_LAYERS, otherwise drawn call by call onto the canvas.
+   * The pop ups only cover the pop up box, so that they are drawn over the question screen.
+   * @param state the game state whose static part to draw
+   */
+  private void drawStaticLayer(GameState state) {
+    //both intro screens share the same static part
+    GameState layerState = state == GameState.INTRO_START ? GameState.INTRO_CHOOSEMODE : state;
+    if (!CACHE_STATIC_LAYERS) {
+      renderStaticLayer(layerState, this.g);
+    }
+    else if (state == GameState.POPUP_CORRECT || state == GameState.POPUP_INCORRECT || state == GameState.POPUP_RESET) {
+      layerCache.draw(layerState, POPUP_LAYER_X, POPUP_LAYER_Y, CANVAS_X - (2*POPUP_LAYER_X), CANVAS_Y - (2*POPUP_LAYER_Y));
+    }
+    else {
+      layerCache.draw(layerState, 0, 0, width, height);
+    }
+  }
+
+  /**
+   * Renders the static part of the screen of the given game state onto the given graphics 
+   * (its offscreen layer, or the canvas itself).
+   * Must not depend on anything that changes during the game (e.g. the score, or the current question).
+   * @param state the game state whose static part to render
+   * @param pg the graphics to render onto
+   */
+  private void renderStaticLayer(GameState state, PGraphics pg) {
+    pg.textAlign(CENTER,CENTER);
+    pg.rectMode(CENTER);
+    switch (state) {
+
+      case INTRO_CHOOSEMODE:
+      case INTRO_START:
+        pg.background(theme.get(Role.BACKGROUND));
+        //title
+        pg.fill(theme.get(Role.TEXT));
+        pg.stroke(theme.get(Role.TEXT));
+        fonts.use(pg, BTN_TEXTSIZE);
+        pg.text("Trivia!", CANVAS_X/2, CANVAS_Y/2 - (2*BTN_HEIGHT));
+        break;//-----------------------------------------------------------------------------------
+
+      case QUESTION_SCREEN:
+        pg.background(theme.get(Role.BACKGROUND));
+        drawSectionBackgrounds(pg);
+        //question image placeholder
+        pg.fill(theme.get(Role.IMAGE_PLACEHOLDER));
+        pg.stroke(theme.get(Role.IMAGE_PLACEHOLDER));
+        pg.rect((CANVAS_X/6), (int)((CANVAS_Y/6)*4.2), CANVAS_X/4, CANVAS_X/4);
         break;//-----------------------------------------------------------------------------------
 
       case POPUP_CORRECT:
-        //incorrect message pop up background
-        drawResultPopUp(true);
-        drawButton(this.btnReset, CANVAS_X-((BTN_WIDTH/2) + CANVAS_X/60), (int)(CANVAS_Y-(CANVAS_Y/8)*7.5),
-            BTN_COLOR_START[0], BTN_COLOR_START[1], BTN_COLOR_START[2], 
-            BTN_COLOR_STARTHOVER[0], BTN_COLOR_STARTHOVER[1], BTN_COLOR_STARTHOVER[2],
-            "RESET", BTN_COLOR_TEXT[0], BTN_COLOR_TEXT[1], BTN_COLOR_TEXT[2]);
+        drawResultPopUp(pg, true);
         break;//-----------------------------------------------------------------------------------
 
       case POPUP_INCORRECT:
-        //incorrect message pop up background
-        drawResultPopUp(false);
+        drawResultPopUp(pg, false);
+        break;//-----------------------------------------------------------------------------------
+
+      case POPUP_RESET:
+        drawResetPopUp(pg);
+        break;//-----------------------------------------------------------------------------------
+
+      case FINAL:
+        pg.background(theme.get(Role.FINAL_BACKGROUND));
+        //msg
+        fonts.use(pg, TextSize.MEDIUM);
+        pg.fill(theme.get(Role.FINAL_MSG));
+        pg.stroke(theme.get(Role.FINAL_MSG));
+        pg.text("Your Final Score is...", CANVAS_X/2, (int)(CANVAS_Y/2.5));
+        break;//-----------------------------------------------------------------------------------
+
+      default:
+        throw new IllegalStateException("nonexistent game state");
+    }
+  }
+
+  /**
+   * Returns the layout of the current screen, building it only if the game state or the question changed
+   * since the last call.
+   * @return the layout of the current screen
+   */
+  private ScreenLayout currentLayout() {
+    GameState state = engine.getState();
+    int qSetIdx = engine.getCurrentQuestionSetIdx();
+    if (layout == null || state != layoutState || qSetIdx != layoutQSetIdx) {
+      int numOfAnsOpts = state == GameState.QUESTION_SCREEN ? engine.getCurrentQSet().getNumOfAnsOpts() : 0;
+      layout = buildLayout(state, numOfAnsOpts);
+      layoutState = state;
+      layoutQSetIdx = qSetIdx;
+    }
+    return layout;
+  }
+
+  /**
+   * Builds the layout of the screen of the given game state: the areas of its buttons, 
+   * and of its answer option rows on the question screen.
+   * Does not draw anything, so that it can be measured without a canvas.
+   * @param state the game state
+   * @param numOfAnsOpts the number of answer options of the current question set (only used on the question screen)
+   * @return the layout of the screen
+   */
+  public static ScreenLayout buildLayout(GameState state, int numOfAnsOpts) {
+    ScreenLayout layout = new ScreenLayout(numOfAnsOpts + 2);
+    switch (state) {
+      case INTRO_CHOOSEMODE:
+        layout.addButton(Element.SIMPLE_BUTTON, BTN_LEFT_X, BTN_ROW_Y, BTN_WIDTH, BTN_HEIGHT);
+        layout.addButton(Element.VISUAL_BUTTON, BTN_RIGHT_X, BTN_ROW_Y, BTN_WIDTH, BTN_HEIGHT);
+        break;
+      case INTRO_START:
+        layout.addButton(Element.START_BUTTON, BTN_CENTER_X, BTN_ROW_Y, BTN_WIDTH, BTN_HEIGHT);
+        layout.addButton(Element.RESET_BUTTON, BTN_RESET_X, BTN_RESET_Y, BTN_WIDTH, BTN_HEIGHT);
+        break;
+      case QUESTION_SCREEN:
+        for (int i = 0; i < numOfAnsOpts; i++) {
+          layout.addAnsOptRow(i, ANS_ROW_X, ansOptRowY(i), ANS_ROW_WIDTH, ANS_ROW_HEIGHT);
+        }
+        layout.addButton(Element.RESET_BUTTON, BTN_RESET_X, BTN_RESET_Y, BTN_WIDTH, BTN_HEIGHT);
+        break;
+      case POPUP_CORRECT:
+      case POPUP_INCORRECT:
+        layout.addButton(Element.NEXT_BUTTON, BTN_CENTER_X, BTN_ROW_Y, BTN_WIDTH, BTN_HEIGHT);
+        layout.addButton(Element.RESET_BUTTON, BTN_RESET_X, BTN_RESET_Y, BTN_WIDTH, BTN_HEIGHT);
+        break;
+      case POPUP_RESET:
+        layout.addButton(Element.RESET_CANCEL_BUTTON, BTN_LEFT_X, BTN_ROW_Y, BTN_WIDTH, BTN_HEIGHT);
+        layout.addButton(Element.RESET_CONFIRM_BUTTON, BTN_RIGHT_X, BTN_ROW_Y, BTN_WIDTH, BTN_HEIGHT);
+        break;
+      case FINAL:
+        layout.addButton(Element.RESET_BUTTON, BTN_RESET_X, BTN_RESET_Y, BTN_WIDTH, BTN_HEIGHT);
+        break;
+      default:
+        throw new IllegalStateException("nonexistent game state");
+    }
+    return layout;
+  }
+
+  /**
+   * Repaints the given area of the current screen (an answer option row or a button) over the previous frame.
+   * @param state the current game state
+   * @param area the area index, or NONE to draw nothing
+   */
+  private void drawArea(GameState state, int area) {
+    if (area == ScreenLayout.NONE) {
+      return;
+    }
+    if (layout.is(area, Element.ANS_OPT_ROW)) {
+      frameProfiler.begin(Stage.ANS_OPTS);
+      drawAnsOpt(engine.getCurrentQSet(), area);
+      frameProfiler.end(Stage.ANS_OPTS);
+    }
+    else {
+      frameProfiler.begin(Stage.BUTTONS);
+      drawButtons(state, area);
+      frameProfiler.end(Stage.BUTTONS);
+    }
+  }
+
+  /**
+   * Draws the buttons of the given game state.
+   * @param state the game state whose buttons to draw
+   * @param onlyArea the area of the only button to draw, or NONE to draw all of them
+   */
+  private void drawButtons(GameState state, int onlyArea) {
+    switch (state) {
+
+      case INTRO_CHOOSEMODE:
+        //TEXT-ONLY button (greyed out until the bank is loaded)
+        drawButton(Element.SIMPLE_BUTTON, onlyArea,
+            theme.get(loading ? Role.BTN_DISABLED : Role.BTN_MODE),
+            theme.get(loading ? Role.BTN_DISABLED : Role.BTN_MODE_HOVER),
+            "TEXT-ONLY", theme.get(Role.BTN_TEXT));
+        //VISUAL button (the empty game shown while loading has no visual mode)
+        if (!engine.isVisualAvailable()) {
+          drawButton(Element.VISUAL_BUTTON, onlyArea,
+              theme.get(Role.BTN_DISABLED), theme.get(Role.BTN_DISABLED),
+              loading ? "VISUAL" : "(DISABLED)", theme.get(Role.BTN_TEXT));
+        }
+        else {
+          drawButton(Element.VISUAL_BUTTON, onlyArea,
+              theme.get(Role.BTN_MODE), theme.get(Role.BTN_MODE_HOVER),
+              "VISUAL", theme.get(Role.BTN_TEXT));
+        }
+        break;//-----------------------------------------------------------------------------------
+
+      case INTRO_START: 
+        //START button (greyed out until the images of the VISUAL mode are loaded)
+        drawButton(Element.START_BUTTON, onlyArea,
+            theme.get(imagesPending() ? Role.BTN_DISABLED : Role.BTN_START),
+            theme.get(imagesPending() ? Role.BTN_DISABLED : Role.BTN_START_HOVER),
+            "START", theme.get(Role.BTN_TEXT));
         //RESET button
-        drawButton(this.btnReset, CANVAS_X-((BTN_WIDTH/2) + CANVAS_X/60), (int)(CANVAS_Y-(CANVAS_Y/8)*7.5),
-            BTN_COLOR_START[0], BTN_COLOR_START[1], BTN_COLOR_START[2], 
-            BTN_COLOR_STARTHOVER[0], BTN_COLOR_STARTHOVER[1], BTN_COLOR_STARTHOVER[2],
-            "RESET", BTN_COLOR_TEXT[0], BTN_COLOR_TEXT[1], BTN_COLOR_TEXT[2]);
+        drawButton(Element.RESET_BUTTON, onlyArea,
+            theme.get(Role.BTN_RESET), theme.get(Role.BTN_RESET_HOVER),
+            "RESET", theme.get(Role.BTN_TEXT));
+        break;//-----------------------------------------------------------------------------------
+
+      case QUESTION_SCREEN:
+        //RESET button
+        drawButton(Element.RESET_BUTTON, onlyArea,
+            theme.get(Role.BTN_RESET), theme.get(Role.BTN_RESET_HOVER),
+            "RESET", theme.get(Role.BTN_TEXT));
+        break;//-----------------------------------------------------------------------------------
+
+      case POPUP_CORRECT:
+      case POPUP_INCORRECT:
+        //NEXT button
+        drawButton(Element.NEXT_BUTTON, onlyArea,
+            theme.get(Role.BTN_START), theme.get(Role.BTN_START_HOVER),
+            "NEXT", theme.get(Role.BTN_TEXT));
+        //RESET button
+        drawButton(Element.RESET_BUTTON, onlyArea,
+            theme.get(Role.BTN_RESET), theme.get(Role.BTN_RESET_HOVER),
+            "RESET", theme.get(Role.BTN_TEXT));
         break;//-----------------------------------------------------------------------------------
 
       case POPUP_RESET:
-        drawResetPopUp();
         //reset-CANCEL button
-        drawButton(this.btnResetCancel, (int)((CANVAS_X/2)-(BTN_WIDTH/1.5)), CANVAS_Y/2 + BTN_HEIGHT,
-            Colors.BRICKLIGHTER[0], Colors.BRICKLIGHTER[1], Colors.BRICKLIGHTER[2], 
-            Colors.BRICKLIGHTERHOVER[0], Colors.BRICKLIGHTERHOVER[1], Colors.BRICKLIGHTERHOVER[2], 
-            "NVM", BTN_COLOR_TEXT[0], BTN_COLOR_TEXT[1], BTN_COLOR_TEXT[2]);
+        drawButton(Element.RESET_CANCEL_BUTTON, onlyArea,
+            theme.get(Role.BTN_CANCEL), theme.get(Role.BTN_CANCEL_HOVER),
+            "NVM", theme.get(Role.BTN_TEXT));
         //reset-CONFIRM button
-        drawButton(this.btnResetConfirm, (int)((CANVAS_X/2)+(BTN_WIDTH/1.5)), CANVAS_Y/2 + BTN_HEIGHT,
-            Colors.BRICKDARKER[0], Colors.BRICKDARKER[1], Colors.BRICKDARKER[2], 
-            Colors.BRICKDARKERHOVER[0], Colors.BRICKDARKERHOVER[1], Colors.BRICKDARKERHOVER[2], 
-            "RESET", BTN_COLOR_TEXT[0], BTN_COLOR_TEXT[1], BTN_COLOR_TEXT[2]);
+        drawButton(Element.RESET_CONFIRM_BUTTON, onlyArea,
+            theme.get(Role.BTN_CONFIRM), theme.get(Role.BTN_CONFIRM_HOVER),
+            "RESET", theme.get(Role.BTN_TEXT));
         break;//-----------------------------------------------------------------------------------
 
       case FINAL:
-        background(color(Colors.PURPLE_DARKEST[0],Colors.PURPLE_DARKEST[1],Colors.PURPLE_DARKEST[2]));
-        //final score
-        drawFinalScore();
-        //button
-        drawButton(this.btnReset, CANVAS_X-((BTN_WIDTH/2) + CANVAS_X/60), (int)(CANVAS_Y-(CANVAS_Y/8)*7.5),
-            BTN_COLOR_START[0], BTN_COLOR_START[1], BTN_COLOR_START[2], 
-            BTN_COLOR_STARTHOVER[0], BTN_COLOR_STARTHOVER[1], BTN_COLOR_STARTHOVER[2],
-            "PLAY AGAIN", BTN_COLOR_TEXT[0], BTN_COLOR_TEXT[1], BTN_COLOR_TEXT[2]);
+        //PLAY AGAIN button
+        drawButton(Element.RESET_BUTTON, onlyArea,
+            theme.get(Role.BTN_RESET), theme.get(Role.BTN_RESET_HOVER),
+            "PLAY AGAIN", theme.get(Role.BTN_TEXT));
         break;//-----------------------------------------------------------------------------------
 
       default:
@@ -291,79 +951,81 @@ public class Processing extends PApplet {
   //DRAW helpers-----------------------------------------------------------------------------------
 
   /**
-   * Draws a button onto the canvas.
-   * @param button the PShape object of this button
-   * @param centerX
-   * @param centerY
-   * @param r the r value for this button's color (rgb)
-   * @param g the g value for this button's color (rgb)
-   * @param b b the b value for this button's color (rgb)
-   * @param hoverR the r value for this button's hover state color (rgb)
-   * @param hoverG the g value for this button's hover state color (rgb)
-   * @param hoverB the b value for this button's hover state color (rgb)
+   * Draws a button onto the canvas, in the area of the current screen's layout, in its current hover state.
+   * Covers the whole button, so that it can be repainted on its own over the previous frame.
+   * @param button the button
+   * @param onlyArea the area of the only button to draw, or NONE to draw any button
+   * @param color this button's color (packed, see Theme)
+   * @param hoverColor this button's hover state color (packed, see Theme)
    * @param text the text to be displayed for this button
-   * @param textR the r value for this button's text color (rgb)
-   * @param textG the g value for this button's text color (rgb)
-   * @param textB the b value for this button's text color (rgb)
-   */
-  private void drawButton(PShape button, int centerX, int centerY,
-      int r, int g, int b, int hoverR, int hoverG, int hoverB, 
-      String text, int textR, int textG, int textB) {
-    button.beginShape();
+   * @param textColor this button's text color (packed, see Theme)
+   */
+  private void drawButton(Element button, int onlyArea, int color, int hoverColor, String text, int textColor) {
+    int area = layout.find(button);
+    if (onlyArea != ScreenLayout.NONE && area != onlyArea) {
+      return;
+    }
+    float centerX = layout.getCenterX(area);
+    float centerY = layout.getCenterY(area);
     //hover
-    if (((centerX - BTN_WIDTH/2) <= mouseX && mouseX <= (centerX + BTN_WIDTH/2))
-        && ((centerY - BTN_HEIGHT/2) <= mouseY && mouseY <= (centerY + BTN_HEIGHT/2))) { 
-      button.fill(color(hoverR,hoverG,hoverB));
-      button.stroke(color(hoverR,hoverG,hoverB));
+    if (area == hoveredArea) { 
+      fill(hoverColor);
+      stroke(hoverColor);
     }
     //normal
     else {
-      button.fill(color(r,g,b));
-      button.stroke(color(r,g,b));
-    }
-    //top left
-    button.vertex((centerX - BTN_WIDTH/2), (centerY - BTN_HEIGHT/2)); 
-    //top right
-    button.vertex((centerX + BTN_WIDTH/2), (centerY - BTN_HEIGHT/2)); 
-    //bottom right
-    button.vertex((centerX + BTN_WIDTH/2), (centerY + BTN_HEIGHT/2)); 
-    //bottom left
-    button.vertex((centerX - BTN_WIDTH/2), (centerY + BTN_HEIGHT/2)); 
-    button.endShape();
-    shape(button);
+      fill(color);
+      stroke(color);
+    }
+    rect(centerX, centerY, layout.getWidth(area), layout.getHeight(area));
     //text
-    fill(color(textR, textG, textB));
-    if ((button.equals(this.btnReset) && model.getState() == GameState.FINAL)
-        || (button.equals(this.btnSimple) && model.getState() == GameState.INTRO_CHOOSEMODE)
-        || (button.equals(this.btnVisual) && model.getState() == GameState.INTRO_CHOOSEMODE)){
-      textSize(TextSize.SMALL);
+    fill(textColor);
+    if ((button == Element.RESET_BUTTON && engine.getState() == GameState.FINAL)
+        || button == Element.SIMPLE_BUTTON || button == Element.VISUAL_BUTTON) {
+      fonts.use(g, TextSize.SMALL);
     }
     else {
-      textSize(BTN_TEXTSIZE);
+      fonts.use(g, BTN_TEXTSIZE);
     }
     text(text, centerX, centerY-TEXT_Y_ADJUSTMENT);
   }
 
+  /**
+   * Returns whether the VISUAL mode was chosen, but its images are not loaded yet.
+   * @return true if the game is waiting for the images
+   */
+  private boolean imagesPending() {
+    return !loading && engine.getState() != GameState.INTRO_CHOOSEMODE && engine.getMode() == ModelMode.VISUAL
+        && !engine.isVisualLoaded();
+  }
+
   /**
    * Draws messages related to the mode selection (simple vs visual model).
    */
   private void drawModeMsg() {
     String mode;
+    //while the bank is loading
+    if (loading) {
+      mode = loadFailed ? "ERROR! the questions could not be loaded" 
+          : "loading... " + loadProgress.getAsInt() + " questions";
+    }
     //before user choosing
-    if (model.getState() == GameState.INTRO_CHOOSEMODE) { 
+    else if (engine.getState() == GameState.INTRO_CHOOSEMODE) { 
       mode = "choose the mode";
     }
     //after user choosing
     else {
-      if (modelMode == Model.ModelMode.SIMPLE) {
+      if (engine.getMode() == ModelMode.SIMPLE) {
         mode = "MODE: Text-Only";
+      } else if (imagesPending()) {
+        mode = imagesLoadFailed ? "ERROR! the images could not be loaded" : "MODE: Visual (loading images...)";
       } else {
         mode = "MODE: Visual";
       }
     }
-    fill(color(Colors.PURPLE_LIGHTER[0], Colors.PURPLE_LIGHTER[1], Colors.PURPLE_LIGHTER[2]));
-    stroke(color(Colors.PURPLE_LIGHTER[0], Colors.PURPLE_LIGHTER[1], Colors.PURPLE_LIGHTER[2]));
-    textSize(TextSize.SMALL);
+    fill(theme.get(Role.MODE_MSG));
+    stroke(theme.get(Role.MODE_MSG));
+    fonts.use(g, TextSize.SMALL);
     text(mode, CANVAS_X/2, CANVAS_Y/2 - BTN_HEIGHT);
   }
 
@@ -372,9 +1034,9 @@ public class Processing extends PApplet {
    */
   private void drawCurrentScore() {
     //draw score
-    fill(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-    stroke(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-    String scoreStr = Integer.toString(model.getScore());
+    fill(theme.get(Role.TEXT));
+    stroke(theme.get(Role.TEXT));
+    String scoreStr = Integer.toString(engine.getScore());
     textAlign(LEFT, CENTER);
     text("Score: " + scoreStr, CANVAS_X/60, CANVAS_X/30);
     textAlign(CENTER, CENTER);
@@ -383,54 +1045,58 @@ public class Processing extends PApplet {
   /**
    * Draws the 3-sectioned background for the question/answer stage of the game.
    * The left box containing 
+   * @param pg the graphics to draw onto (the layer of the question screen, or the canvas)
    */
-  private void drawSectionBackgrounds() {
+  private void drawSectionBackgrounds(PGraphics pg) {
     //draw left box
-    fill(color(Colors.PURPLE_LIGHTER[0],Colors.PURPLE_LIGHTER[1],Colors.PURPLE_LIGHTER[2]));
-    stroke(color(Colors.PURPLE_LIGHTER[0],Colors.PURPLE_LIGHTER[1],Colors.PURPLE_LIGHTER[2]));
-    rect((float)(CANVAS_X/6), (float)(CANVAS_Y-(((CANVAS_Y/8)*7))/2), 
+    pg.fill(theme.get(Role.QUESTION_BOX));
+    pg.stroke(theme.get(Role.QUESTION_BOX));
+    pg.rect((float)(CANVAS_X/6), (float)(CANVAS_Y-(((CANVAS_Y/8)*7))/2), 
         (float)(CANVAS_X/3), (float)((CANVAS_Y/8)*7));
     //draw right box
-    fill(color(Colors.WHITE[0], Colors.WHITE[1],Colors.WHITE[2]));
-    stroke(color(Colors.WHITE[0], Colors.WHITE[1],Colors.WHITE[2]));
-    rect((float)((CANVAS_X/6)*4), (float)(CANVAS_Y-(((CANVAS_Y/8)*7))/2), 
+    pg.fill(theme.get(Role.ANS_BOX));
+    pg.stroke(theme.get(Role.ANS_BOX));
+    pg.rect((float)((CANVAS_X/6)*4), (float)(CANVAS_Y-(((CANVAS_Y/8)*7))/2), 
         (float)(CANVAS_X-(CANVAS_X/3)), (float)((CANVAS_Y/8)*7));
   }
 
   /**
    * Draws the pop up screen of the result after a user chooses an answer,
    * depending on whether, the chosen answer is correct or incorrect.
+   * The correct answer is not part of it (see drawCorrectAnsMsg()).
+   * @param pg the graphics to draw onto (the layer of the pop up, or the canvas)
    * @param choseCorrect whether the user has chosen the correct answer or not
    */
-  private void drawResultPopUp(boolean choseCorrect) {
+  private void drawResultPopUp(PGraphics pg, boolean choseCorrect) {
     String msg = "";
     if (choseCorrect) {
-      fill(color(Colors.GREEN[0], Colors.GREEN[1], Colors.GREEN[2]));
-      stroke(color(Colors.GREEN[0], Colors.GREEN[1], Colors.GREEN[2]));
+      pg.fill(theme.get(Role.POPUP_CORRECT));
+      pg.stroke(theme.get(Role.POPUP_CORRECT));
       msg = "Correct!";
-      rect((float)(CANVAS_X/2), (float)(CANVAS_Y/2), (float)(CANVAS_X/1.5), (float)(CANVAS_Y/2));
     }
     else {
-      fill(color(Colors.RED[0], Colors.RED[1], Colors.RED[2]));
-      stroke(color(Colors.RED[0], Colors.RED[1], Colors.RED[2]));
-      rect((float)(CANVAS_X/2), (float)(CANVAS_Y/2), (float)(CANVAS_X/1.5), (float)(CANVAS_Y/2));
-      int correctIdx = model.getQSetAt(model.getCurrentQuestionSetIdx()).getCorrectAnsOptIdx();
-      String correctAnsString = model.getQSetAt(model.getCurrentQuestionSetIdx()).getMapOfAnsOpts().get(correctIdx).getAnsOptString();
-      String correctAnsMsg = "The correct answer was... " + ALPHABET[correctIdx] + ": " + correctAnsString;
-      textSize(TextSize.SMALL);
-      fill(color(Colors.PINK[0], Colors.PINK[1], Colors.PINK[2]));
-      stroke(color(Colors.PINK[0], Colors.PINK[1], Colors.PINK[2]));
-      text(correctAnsMsg, CANVAS_X/2, (int)(CANVAS_Y/2.2));
+      pg.fill(theme.get(Role.POPUP_INCORRECT));
+      pg.stroke(theme.get(Role.POPUP_INCORRECT));
       msg = "Incorrect!";
     }
-    textSize(TextSize.MEDIUM);
-    fill(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-    stroke(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-    text(msg, CANVAS_X/2, (int)(CANVAS_Y/2.5));
-    drawButton(this.btnNextQ, CANVAS_X/2, CANVAS_Y/2 + BTN_HEIGHT,
-        Colors.PURPLE_DARKEST[0], Colors.PURPLE_DARKEST[1], Colors.PURPLE_DARKEST[2], 
-        Colors.PURPLE_DARKESTHOVER[0], Colors.PURPLE_DARKESTHOVER[1], Colors.PURPLE_DARKESTHOVER[2], 
-        "NEXT", BTN_COLOR_TEXT[0], BTN_COLOR_TEXT[1], BTN_COLOR_TEXT[2]);
+    pg.rect((float)(CANVAS_X/2), (float)(CANVAS_Y/2), POPUP_WIDTH, POPUP_HEIGHT);
+    fonts.use(pg, TextSize.MEDIUM);
+    pg.fill(theme.get(Role.TEXT));
+    pg.stroke(theme.get(Role.TEXT));
+    pg.text(msg, CANVAS_X/2, (int)(CANVAS_Y/2.5));
+  }
+
+  /**
+   * Draws the correct answer of the current question set onto the incorrect pop up.
+   */
+  private void drawCorrectAnsMsg() {
+    int correctIdx = engine.getCurrentQSet().getCorrectAnsOptIdx();
+    String correctAnsString = engine.getCurrentQSet().getAnsOptAt(correctIdx).getAnsOptString();
+    String correctAnsMsg = "The correct answer was... " + ALPHABET[correctIdx] + ": " + correctAnsString;
+    fonts.use(g, TextSize.SMALL);
+    fill(theme.get(Role.CORRECT_ANS_MSG));
+    stroke(theme.get(Role.CORRECT_ANS_MSG));
+    text(correctAnsMsg, CANVAS_X/2, (int)(CANVAS_Y/2.2));
   }
 
   /**
@@ -438,59 +1104,73 @@ public class Processing extends PApplet {
    * @param qSetId the id of the question set to television.
    */
   private void drawQuestionNumber(int qSetId) {
-    fill(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-    stroke(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-    textSize(TextSize.SMALL);
-    text("Question " + (qSetId+1) + " out of " + model.getAllQSets().size(), (CANVAS_X/6), (CANVAS_Y/5));
-  }
-
-  /**
-   * Draws the given question String onto the canvas. 
-   * @param qString the given question string to draw
-   */
-  private void drawQuestionString(String qString) {
-    fill(color(Colors.PURPLE_DARKEST[0], Colors.PURPLE_DARKEST[1], Colors.PURPLE_DARKEST[2]));
-    stroke(color(Colors.PURPLE_DARKEST[0], Colors.PURPLE_DARKEST[1], Colors.PURPLE_DARKEST[2]));
-    textSize(TextSize.SMALL);
-    //
-    String str = qString;
-    int begin=0;
-    int end = qString.length();
-    int lengthToWrap = 24;
-    //---referenced from https://stackoverflow.com/questions/23421306/splitting-a-string-over-multiple-lines
-    List<String> brokenLines = new ArrayList<>();
-    while (str.length() > lengthToWrap) {
-      brokenLines.add(str.substring(begin,begin+lengthToWrap));
-      str=str.substring(begin+lengthToWrap,end); //left over string after taking away substring
-      end=end-lengthToWrap;
-    }
-    //---
-    if (str != "") { //add the leftover string
-      brokenLines.add(str);
-    }
-    String splitQString = "";
-    for (int i = 0; i < brokenLines.size(); i++) {
-      splitQString = splitQString + brokenLines.get(i) + "\n";
-    }
+    fill(theme.get(Role.TEXT));
+    stroke(theme.get(Role.TEXT));
+    fonts.use(g, TextSize.SMALL);
+    text("Question " + (qSetId+1) + " out of " + engine.getNumOfQSets(), (CANVAS_X/6), (CANVAS_Y/5));
+  }
+
+  /**
+   * Draws the question String of the given question set onto the canvas, wrapped to fit the left box.
+   * The line breaks are only computed the first time the question is shown (see TextLayoutCache).
+   * @param qSet the question set whose question string to draw
+   */
+  private void drawQuestionString(QuestionSet qSet) {
+    fill(theme.get(Role.QUESTION_TEXT));
+    stroke(theme.get(Role.QUESTION_TEXT));
+    fonts.use(g, TextSize.SMALL);
+    String splitQString = textLayoutCache.get(qSet.getId(), qSet.getQString(), TextSize.SMALL, Q_TEXT_BOX_WIDTH);
     text(splitQString, (CANVAS_X/6), (CANVAS_Y/3));
   }
 
   /**
-   * Draws either a blank square or an image for a given question set, depending on whether the game
-   * is in text-only mode or image mode.
-   * @param currentQSet the given question set to draw either a square or image for
+   * Returns the y coordinate of the center of the answer option row at the given index.
+   * @param i the index of the answer option
+   * @return the y coordinate of the row's center
+   */
+  public static int ansOptRowY(int i) {
+    return ANS_ROW_Y_START + (ANS_ROW_Y_GAP * i);
+  }
+
+  /**
+   * Draws the image of a given question set over its blank square (part of the static layer of the question screen),
+   * if the game is in image mode.
+   * @param currentQSet the given question set to draw the image for
    */
   private void drawQImageSquare(QuestionSet currentQSet) {
-    //draw question image placeholder
     String qImageUrl;
-    fill(color(Colors.PURPLE_LIGHTEST[0], Colors.PURPLE_LIGHTEST[1], Colors.PURPLE_LIGHTEST[2]));
-    stroke(color(Colors.PURPLE_LIGHTEST[0], Colors.PURPLE_LIGHTEST[1], Colors.PURPLE_LIGHTEST[2]));
-    rect((CANVAS_X/6), (int)((CANVAS_Y/6)*4.2), CANVAS_X/4, CANVAS_X/4);
     //draw question image if in visual mode
-    if (modelMode == modelMode.VISUAL) {
+    if (engine.getMode() == ModelMode.VISUAL) {
       qImageUrl = currentQSet.getQuestionImageUrl();
-      PImage qImage = loadImage("src/resources/"+FILE_NAME+"_images/"+qImageUrl);
-      image(qImage, (CANVAS_X/6), (int)((CANVAS_Y/6)*4.2), CANVAS_X/4, CANVAS_X/4); //xywh
+      drawImage(qImageUrl, (CANVAS_X/6), (int)((CANVAS_Y/6)*4.2), Q_IMG_SIZE);
+    }
+  }
+
+  /**
+   * Draws the (square) image with the given url, centered at the given position.
+   * Only copies the pre-scaled region of the image atlas if there is one, packing the image into the atlas 
+   * on its first use if there is still room. Otherwise the full resolution image from the image cache is scaled 
+   * while drawing.
+   * @param url the url of the image, relative to the image folder
+   * @param centerX the x coordinate of the image's center
+   * @param centerY the y coordinate of the image's center
+   * @param size the on-screen width and height of the image
+   */
+  private void drawImage(String url, float centerX, float centerY, int size) {
+    String path = imageDir + url;
+    String key = ImageAtlas.keyOf(path, size, size);
+    ImageAtlas.Region region = imageAtlas.get(key);
+    if (region == null && !imageAtlas.isFull()) {
+      region = imageAtlas.add(key, imageCache.get(path), size, size);
+    }
+    if (region != null) {
+      image(imageAtlas.getPage(region.page), centerX, centerY, region.width, region.height,
+          region.x, region.y, region.x + region.width, region.y + region.height);
+      return;
+    }
+    PImage image = imageCache.get(path);
+    if (image != null) {
+      image(image, centerX, centerY, size, size);
     }
   }
 
@@ -498,113 +1178,116 @@ public class Processing extends PApplet {
    * Draws the given map of answer options onto the canvas.
    * The current maximum number of answer options in the map for optimal visualization, 
    * without implementing a scroll function is five. From the sixth answer option, it will get cut off.
-   * @param mapOfAnsOpts the map of answer options to draw
-   */
-  private void drawAnsOpts(Map<Integer, AnsOpt> mapOfAnsOpts) {
-    for (int i = 0; i < mapOfAnsOpts.size(); i++) {
-      //measurements: long rect (textbox)
-      float longRectPosX = (float)(CANVAS_X-(CANVAS_X/3));
-      float longRectWidth = CANVAS_Y;
-      float longRectHeight = (float)(CANVAS_Y/10.8);
-      //measurements: short rect (square)
-      float shortRectHeight = (float)(CANVAS_Y/10.8);
-      float shortRectWidth = shortRectHeight;
-      float shortRectPosX = longRectPosX-(longRectWidth/2)+(shortRectWidth/2);
-      //measurements: y
-      int yStart = (int)((CANVAS_Y/5) + (longRectHeight/2)); //center offSet
-      int ansOptBoxHeight = (int)(CANVAS_Y/10.8);
-      int yGap = (int)(ansOptBoxHeight + (CANVAS_Y/18)); //1
-      int posYbothRect = yStart + (yGap * i);
-      //--------------
-      //draw long rect
-      //hover
-      if ((longRectPosX-(longRectWidth/2) <= mouseX && mouseX <= (longRectPosX+(longRectWidth/2)))
-          && (posYbothRect-(longRectHeight/2) <= mouseY && mouseY <= (posYbothRect+(longRectHeight/2)))) {
-        fill(color(Colors.PURPLE_LIGHTESTHOVER[0], Colors.PURPLE_LIGHTESTHOVER[1], Colors.PURPLE_LIGHTESTHOVER[2]));
-        stroke(color(Colors.PURPLE_LIGHTESTHOVER[0], Colors.PURPLE_LIGHTESTHOVER[1], Colors.PURPLE_LIGHTESTHOVER[2]));
-      }
-      //normal
-      else {
-        fill(color(Colors.PURPLE_LIGHTEST[0], Colors.PURPLE_LIGHTEST[1], Colors.PURPLE_LIGHTEST[2]));
-        stroke(color(Colors.PURPLE_LIGHTEST[0], Colors.PURPLE_LIGHTEST[1], Colors.PURPLE_LIGHTEST[2]));
-      }
-      rect(longRectPosX, posYbothRect, longRectWidth, longRectHeight);
-      //--------------
-      //draw short rect
-      // hover
-      if ((longRectPosX-(longRectWidth/2) <= mouseX && mouseX <= (longRectPosX+(longRectWidth/2)))
-          && (posYbothRect-(longRectHeight/2) <= mouseY && mouseY <= (posYbothRect+(longRectHeight/2)))) {
-        fill(color(Colors.PURPLE_LIGHTERHOVER[0], Colors.PURPLE_LIGHTERHOVER[1], Colors.PURPLE_LIGHTERHOVER[2]));
-        stroke(color(Colors.PURPLE_LIGHTERHOVER[0], Colors.PURPLE_LIGHTERHOVER[1], Colors.PURPLE_LIGHTERHOVER[2]));
-      }
-      // normal
-      else {
-        fill(color(Colors.PURPLE_LIGHTER[0], Colors.PURPLE_LIGHTER[1], Colors.PURPLE_LIGHTER[2]));
-        stroke(color(Colors.PURPLE_LIGHTER[0], Colors.PURPLE_LIGHTER[1], Colors.PURPLE_LIGHTER[2]));
-      }
-      rect(shortRectPosX, posYbothRect, shortRectWidth, shortRectHeight);
-      //--------------
-      //draw the text
-      textSize(TextSize.MEDIUM);
-      textAlign(CENTER, CENTER);
-      AnsOpt thisAnsOpt = mapOfAnsOpts.get(i);
-      fill(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-      stroke(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-      text(ALPHABET[i], shortRectPosX,posYbothRect);
-      textAlign(LEFT, CENTER);
-      String ansOptString = thisAnsOpt.getAnsOptString();
-      if ((longRectPosX-(longRectWidth/2) <= mouseX && mouseX <= (longRectPosX+(longRectWidth/2)))
-          && (posYbothRect-(longRectHeight/2) <= mouseY && mouseY <= (posYbothRect+(longRectHeight/2)))) {
-        fill(color(Colors.PURPLE[0], Colors.PURPLE[1], Colors.PURPLE[2]));
-        stroke(color(Colors.PURPLE[0], Colors.PURPLE[1], Colors.PURPLE[2]));
-      }
-      //normal
-      else {
-        fill(color(Colors.PURPLE_DARKEST[0], Colors.PURPLE_DARKEST[1], Colors.PURPLE_DARKEST[2]));
-        stroke(color(Colors.PURPLE_DARKEST[0], Colors.PURPLE_DARKEST[1], Colors.PURPLE_DARKEST[2]));
-      }
-      text(ansOptString,
-          (int)(longRectPosX-(longRectWidth/2)+(shortRectWidth*1.5)),
-          posYbothRect);
-      if (modelMode == modelMode.VISUAL) {
-        String ansOptImageUrl = thisAnsOpt.getAnsOptImageUrl();
-        PImage aOImage = loadImage("src/resources/"+FILE_NAME+"_images/"+ansOptImageUrl);
-        image(aOImage, (float)(shortRectPosX+0.2), (float)(posYbothRect+0.2), shortRectWidth, shortRectHeight);
+   * @param qSet the question set whose answer options to draw
+   */
+  private void drawAnsOpts(QuestionSet qSet) {
+    for (int area = 0; area < layout.size(); area++) {
+      if (layout.is(area, Element.ANS_OPT_ROW)) {
+        drawAnsOpt(qSet, area);
       }
-      textAlign(CENTER, CENTER);
     }
   }
 
+  /**
+   * Draws the answer option row in the given area of the current screen's layout, in its current hover state.
+   * Covers the whole row, so that it can be repainted on its own over the previous frame.
+   * @param qSet the question set whose answer option to draw
+   * @param area the area of the answer option row
+   */
+  private void drawAnsOpt(QuestionSet qSet, int area) {
+    int i = layout.getAnsOptIdx(area);
+    //measurements: long rect (textbox)
+    float longRectPosX = layout.getCenterX(area);
+    float longRectWidth = layout.getWidth(area);
+    float longRectHeight = layout.getHeight(area);
+    //measurements: short rect (square)
+    float shortRectHeight = longRectHeight;
+    float shortRectWidth = shortRectHeight;
+    float shortRectPosX = longRectPosX-(longRectWidth/2)+(shortRectWidth/2);
+    //measurements: y
+    float posYbothRect = layout.getCenterY(area);
+    boolean hover = area == hoveredArea;
+    //--------------
+    //draw long rect
+    //hover
+    if (hover) {
+      fill(theme.get(Role.ANS_ROW_HOVER));
+      stroke(theme.get(Role.ANS_ROW_HOVER));
+    }
+    //normal
+    else {
+      fill(theme.get(Role.ANS_ROW));
+      stroke(theme.get(Role.ANS_ROW));
+    }
+    rect(longRectPosX, posYbothRect, longRectWidth, longRectHeight);
+    //--------------
+    //draw short rect
+    // hover
+    if (hover) {
+      fill(theme.get(Role.ANS_LETTER_BOX_HOVER));
+      stroke(theme.get(Role.ANS_LETTER_BOX_HOVER));
+    }
+    // normal
+    else {
+      fill(theme.get(Role.ANS_LETTER_BOX));
+      stroke(theme.get(Role.ANS_LETTER_BOX));
+    }
+    rect(shortRectPosX, posYbothRect, shortRectWidth, shortRectHeight);
+    //--------------
+    //draw the text
+    fonts.use(g, TextSize.MEDIUM);
+    textAlign(CENTER, CENTER);
+    AnsOpt thisAnsOpt = qSet.getAnsOptAt(i);
+    fill(theme.get(Role.TEXT));
+    stroke(theme.get(Role.TEXT));
+    text(ALPHABET[i], shortRectPosX,posYbothRect);
+    textAlign(LEFT, CENTER);
+    String ansOptString = thisAnsOpt.getAnsOptString();
+    if (hover) {
+      fill(theme.get(Role.ANS_TEXT_HOVER));
+      stroke(theme.get(Role.ANS_TEXT_HOVER));
+    }
+    //normal
+    else {
+      fill(theme.get(Role.ANS_TEXT));
+      stroke(theme.get(Role.ANS_TEXT));
+    }
+    text(ansOptString,
+        (int)(longRectPosX-(longRectWidth/2)+(shortRectWidth*1.5)),
+        posYbothRect);
+    if (engine.getMode() == ModelMode.VISUAL) {
+      String ansOptImageUrl = thisAnsOpt.getAnsOptImageUrl();
+      drawImage(ansOptImageUrl, (float)(shortRectPosX+0.2), (float)(posYbothRect+0.2), ANS_IMG_SIZE);
+    }
+    textAlign(CENTER, CENTER);
+  }
+
   /**
    * Draws the pop up screen when a user clicks on the reset button.
    * Asks the user if they are sure they want to start over.
+   * @param pg the graphics to draw onto (the layer of the pop up, or the canvas)
    */
-  private void drawResetPopUp() {
+  private void drawResetPopUp(PGraphics pg) {
     //bg rect
-    fill(color(Colors.BRICK[0], Colors.BRICK[1], Colors.BRICK[2]));
-    stroke(color(Colors.BRICK[0], Colors.BRICK[1], Colors.BRICK[2]));
-    rect((float)(CANVAS_X/2), (float)(CANVAS_Y/2), (float)(CANVAS_X/1.5), (float)(CANVAS_Y/2));
+    pg.fill(theme.get(Role.POPUP_RESET));
+    pg.stroke(theme.get(Role.POPUP_RESET));
+    pg.rect((float)(CANVAS_X/2), (float)(CANVAS_Y/2), POPUP_WIDTH, POPUP_HEIGHT);
     //text
-    textSize(TextSize.MEDIUM);
-    fill(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-    stroke(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-    text("Are you sure you want to start over?", CANVAS_X/2, (int)(CANVAS_Y/2.5));
+    fonts.use(pg, TextSize.MEDIUM);
+    pg.fill(theme.get(Role.TEXT));
+    pg.stroke(theme.get(Role.TEXT));
+    pg.text("Are you sure you want to start over?", CANVAS_X/2, (int)(CANVAS_Y/2.5));
   }
 
   /**
-   * Draws the final screen, containing the final score, onto the canvas.
+   * Draws the final score onto the final screen (whose message is part of its static layer).
    */
   private void drawFinalScore() {
-    //msg
-    textSize(TextSize.MEDIUM);
-    fill(color(Colors.PURPLE_LIGHTEST[0], Colors.PURPLE_LIGHTEST[1], Colors.PURPLE_LIGHTEST[2]));
-    stroke(color(Colors.PURPLE_LIGHTEST[0], Colors.PURPLE_LIGHTEST[1], Colors.PURPLE_LIGHTEST[2]));
-    text("Your Final Score is...", CANVAS_X/2, (int)(CANVAS_Y/2.5));
     //score
-    textSize(TextSize.LARGE);
-    fill(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-    stroke(color(Colors.WHITE[0], Colors.WHITE[1], Colors.WHITE[2]));
-    text(model.getScore(), CANVAS_X/2, (int)(CANVAS_Y/2));
+    fonts.use(g, TextSize.LARGE);
+    fill(theme.get(Role.TEXT));
+    stroke(theme.get(Role.TEXT));
+    text(engine.getScore(), CANVAS_X/2, CANVAS_Y/2);
   }
 
 
@@ -616,40 +1299,128 @@ public class Processing extends PApplet {
   //-----------------------------------------------------------------------------------------------
 
   /**
-   * Executes commands for when a mouse click occurs while the program is running
+   * Executes commands for when a mouse click occurs while the program is running.
+   * The clicked element is looked up in the layout of the current screen, the same one the hover states are drawn from.
    */
   public void mouseClicked() {
-    switch (model.getState()) {
+    //the buttons are disabled until the bank is loaded
+    if (loading) {
+      return;
+    }
+    ScreenLayout clickedLayout = currentLayout();
+    int area = clickedLayout.hitTest(mouseX, mouseY);
+    if (area == ScreenLayout.NONE) {
+      return;
+    }
+    Element clicked = clickedLayout.getElement(area);
+    switch (engine.getState()) {
       case INTRO_CHOOSEMODE:
-        modeButtonListener();
+        modeButtonListener(clicked);
         break;
       case INTRO_START: 
-        startButtonListener();
-        resetButtonListener();
+        startButtonListener(clicked);
+        resetButtonListener(clicked);
         break;
       case QUESTION_SCREEN:
-        answerOptionClickListener();
-        resetButtonListener();
+        answerOptionClickListener(clicked, clickedLayout.getAnsOptIdx(area));
+        resetButtonListener(clicked);
         break;
       case POPUP_CORRECT:
-        nextButtonListener();
-        resetButtonListener();
+        nextButtonListener(clicked);
+        resetButtonListener(clicked);
         break;
       case POPUP_INCORRECT:
-        nextButtonListener();
-        resetButtonListener();
+        nextButtonListener(clicked);
+        resetButtonListener(clicked);
         break;
       case POPUP_RESET:
-        resetConfirmButtonListener();
-        resetCancelButtonListener();
+        resetConfirmButtonListener(clicked);
+        resetCancelButtonListener(clicked);
         break;
       case FINAL:
-        background(color(Colors.PURPLE_DARKEST[0],Colors.PURPLE_DARKEST[1],Colors.PURPLE_DARKEST[2]));
-        resetButtonListener();
+        resetButtonListener(clicked);
         break;
       default:
         throw new IllegalStateException("nonexistent game state");
     }
+    if (REDRAW_ON_DEMAND) {
+      redraw();
+    }
+  }
+
+  /**
+   * Executes commands for when the mouse moves while the program is running.
+   * With REDRAW_ON_DEMAND, asks for a frame only if the mouse moved onto or off an answer option row or a button.
+   */
+  public void mouseMoved() {
+    if (REDRAW_ON_DEMAND && currentLayout().hitTest(mouseX, mouseY) != drawnHoveredArea) {
+      redraw();
+    }
+  }
+
+  /**
+   * Executes commands for when a key is pressed while the program is running.
+   * The 't' key switches between the default and the high contrast theme.
+   */
+  public void keyPressed() {
+    if (key == 't') {
+      setTheme(theme == Theme.DEFAULT ? Theme.HIGH_CONTRAST : Theme.DEFAULT);
+    }
+  }
+
+  /**
+   * Swaps the colors of every screen for the given theme, from the next frame on.
+   * The static layers rendered with the previous theme are rendered again, and the whole screen is repainted.
+   * Must be called on the render thread (e.g. from an input event).
+   * @param theme the new theme
+   */
+  public void setTheme(Theme theme) {
+    this.theme = theme;
+    layerCache.invalidateAll();
+    drawnState = null;
+    redraw();
+  }
+
+  /**
+   * Returns the theme the screens are drawn with.
+   * @return the current theme
+   */
+  public Theme getTheme() {
+    return this.theme;
+  }
+
+  /**
+   * Returns the game being played: the empty game shown on the intro screen until the bank is loaded,
+   * then the loaded one (handed over in draw()).
+   * @return the current game
+   */
+  public GameEngine getEngine() {
+    return this.engine;
+  }
+
+  /**
+   * Returns the profiler that times the frames and their stages (it does nothing unless the frames are profiled).
+   * @return the frame profiler, or null before setup()
+   */
+  public FrameProfiler getFrameProfiler() {
+    return this.frameProfiler;
+  }
+
+  /**
+   * Returns whether frames still need to be drawn for the screen to be complete: while the bank or the images
+   * are loading, or while images are being decoded in the background (they are handed over in draw()).
+   * @return true if the screen is not complete yet
+   */
+  public boolean isBusy() {
+    return loading || imagesPending() || imagePrefetcher.getPendingCount() > 0;
+  }
+
+  /**
+   * Returns whether the bank or its images could not be loaded (the game then waits for them forever).
+   * @return true if loading failed
+   */
+  public boolean hasLoadFailed() {
+    return loadFailed || imagesLoadFailed;
   }
 
   //MOUSECLICK helpers-----------------------------------------------------------------------------
@@ -658,17 +1429,22 @@ public class Processing extends PApplet {
    * Listens to whether the user has clicked on one of two mode choice buttons: 
    * the simple(text-only) mode versus the visual(image) mode.
    * Sets the game model mode to the corresponding mode to the button clicked.
+   * @param clicked the clicked element
    */
-  private void modeButtonListener() {
-    if (mouseOnButton(this.btnSimple)) {
-      modelMode = Model.ModelMode.SIMPLE;
-      model.setState(GameState.INTRO_START);
+  private void modeButtonListener(Element clicked) {
+    if (clicked == Element.SIMPLE_BUTTON) {
+      engine.chooseMode(ModelMode.SIMPLE);
     }
     //disable the visual mode if the loaded file is text only
-    if (!(FILE_NAME.contains("textOnly"))) { 
-      if (mouseOnButton(this.btnVisual)) {
-        modelMode = Model.ModelMode.VISUAL;
-        model.setState(GameState.INTRO_START);
+    else if (engine.isVisualAvailable() && clicked == Element.VISUAL_BUTTON) {
+      engine.chooseMode(ModelMode.VISUAL);
+      //the images are only loaded now, so that a text-only game never reads or decodes them
+      if (!engine.isVisualLoaded()) {
+        startLoadingImages();
+      }
+      //start decoding the first questions' images while the START screen is shown
+      else {
+        prefetchUpcomingImages();
       }
     }
   }
@@ -676,10 +1452,12 @@ public class Processing extends PApplet {
   /**
    * Listens to whether the user has clicked on the START button.
    * Sets the game to the next state (the question/answer game-play stage)
+   * @param clicked the clicked element
    */
-  private void startButtonListener() {
-    if (mouseOnButton(this.btnStart)) {
-      model.setState(GameState.QUESTION_SCREEN);
+  private void startButtonListener(Element clicked) {
+    //disabled until the images of the VISUAL mode are loaded, and when there are no questions to show
+    if (clicked == Element.START_BUTTON && !imagesPending() && engine.getNumOfQSets() > 0) {
+      engine.start();
     }
   }
 
@@ -687,35 +1465,14 @@ public class Processing extends PApplet {
    * Listens to whether the user has clicked on an answer option.
    * If the clicked answer is correct, the score is incremented by one and the correct pop up message is shown.
    * If the clicked answer is incorrect, the incorrect pop up message is shown.
+   * @param clicked the clicked element
+   * @param ansOptIdx the index of the clicked answer option (if an answer option row was clicked)
    */
-  private void answerOptionClickListener() {
-    Map<Integer, AnsOpt> mapOfAnsOpts = model.getQSetAt(model.getCurrentQuestionSetIdx()).getMapOfAnsOpts();
-    for (int i = 0; i < mapOfAnsOpts.size(); i++) {
-      //measurements: long rect (textbox)
-      float longRectPosX = (float)(CANVAS_X-(CANVAS_X/3));
-      float longRectWidth = CANVAS_Y;
-      float longRectHeight = (float)(CANVAS_Y/10.8);
-      //measurements: short rect (square)
-      float shortRectHeight = (float)(CANVAS_Y/10.8);
-      float shortRectWidth = shortRectHeight;
-      float shortRectPosX = longRectPosX-(longRectWidth/2)+(shortRectWidth/2);
-      //measurements: y
-      int yStart = (int)((CANVAS_Y/5) + (longRectHeight/2)); //center offSet
-      int ansOptBoxHeight = (int)(CANVAS_Y/10.8);
-      int yGap = (int)(ansOptBoxHeight + (CANVAS_Y/18)); //1
-      int posYbothRect = yStart + (yGap * i);
-      //correctAnsIndex
-      int correctAnsIndex = model.getQSetAt(model.getCurrentQuestionSetIdx()).getCorrectAnsOptIdx();
-      if ((longRectPosX-(longRectWidth/2) <= mouseX && mouseX <= (longRectPosX+(longRectWidth/2)))
-          && (posYbothRect-(longRectHeight/2) <= mouseY && mouseY <= (posYbothRect+(longRectHeight/2)))) {
-        if (correctAnsIndex == i) { //correct
-          model.scoreUp();
-          model.setState(GameState.POPUP_CORRECT);
-        }
-        else { //incorrect
-          model.setState(GameState.POPUP_INCORRECT);
-        }
-      }
+  private void answerOptionClickListener(Element clicked, int ansOptIdx) {
+    if (clicked == Element.ANS_OPT_ROW) {
+      engine.answer(ansOptIdx);
+      //decode the next questions' images while the pop up is shown
+      prefetchUpcomingImages();
     }
   }
 
@@ -723,60 +1480,66 @@ public class Processing extends PApplet {
    * Listens to the NEXT button in the correct/incorrect pop-up message. 
    * Moves onto the next question, and closes the pop-up, except for when the user is on the last question,
    * for which the final screen is shown.
+   * @param clicked the clicked element
    */
-  private void nextButtonListener() {
-    if (mouseOnButton(this.btnNextQ)) {
-      if (model.getCurrentQuestionSetIdx() == model.getAllQSets().size() - 1) { //we are on the last question
-        model.setState(GameState.FINAL);
-      }
-      else {
-        model.nextQuestionSet();
-        model.setState(GameState.QUESTION_SCREEN);
+  private void nextButtonListener(Element clicked) {
+    if (clicked == Element.NEXT_BUTTON) {
+      engine.next();
+      if (engine.getState() == GameState.QUESTION_SCREEN) {
+        prefetchUpcomingImages();
       }
     }
   }
 
   /**
    * Listens to the RESET button in the top right corner of the canvas.
-   * Shows an "are you sure?" popup when clicked on.
+   * Shows an "are you sure?" popup when clicked on, or starts over right away on the final screen.
+   * @param clicked the clicked element
    */
-  private void resetButtonListener() {
-    if (mouseOnButton(this.btnReset)) {
-      if (model.getState()==GameState.FINAL) {
-        model = createModel();
-      }
-      else {
-        model.setState(GameState.POPUP_RESET);
-      }
+  private void resetButtonListener(Element clicked) {
+    if (clicked == Element.RESET_BUTTON) {
+      engine.requestReset();
     }
   }
 
   /**
    * Listens to the reset confirm button on the "are you sure?" popup message and resets the game when clicked on.
+   * @param clicked the clicked element
    */
-  private void resetConfirmButtonListener() {
-    if (mouseOnButton(this.btnResetConfirm)) {
-      model = createModel();
+  private void resetConfirmButtonListener(Element clicked) {
+    if (clicked == Element.RESET_CONFIRM_BUTTON) {
+      engine.reset();
     }
   }
 
   /**
    *  Listens to the cancel button on the "are you sure?" pop-up message. Closes the pop-up.
+   * @param clicked the clicked element
    */
-  private void resetCancelButtonListener() {
-    if (mouseOnButton(this.btnResetCancel)) {
-      model.setState(GameState.QUESTION_SCREEN);
+  private void resetCancelButtonListener(Element clicked) {
+    if (clicked == Element.RESET_CANCEL_BUTTON) {
+      engine.cancelReset();
     }
   }
 
+
+
+
+
   /**
-   * Determines if the mouse has clicked on the given button
-   * @param btn the given button to be checked for mouse click
-   * @return true if the mouse click's position is within the given button's area
+   * Prints and writes the frame profile (if profiled) when the sketch exits.
    */
-  private boolean mouseOnButton(PShape button) {
-    return (button.getVertexX(0) <= mouseX && mouseX <= button.getVertexX(0)+ BTN_WIDTH)
-        && (button.getVertexY(0) <= mouseY && mouseY <= button.getVertexY(0)+ BTN_HEIGHT);
+  @Override
+  public void dispose() {
+    if (frameProfiler != null) {
+      if (profileFrames) {
+        System.out.println("text sizes switched with " + (fonts.isEnabled() 
+            ? "textFont() (" + fonts.getNumOfGlyphs() + " glyphs per font)" : "textSize()"));
+      }
+      frameProfiler.consolePrintStats();
+      frameProfiler.writeCsv(new File(PROFILE_CSV));
+    }
+    super.dispose();
   }
 
 
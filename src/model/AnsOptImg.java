@@ -5,7 +5,7 @@ package model;
  * @author stefanieim
  */
 public class AnsOptImg extends AnsOptString implements AnsOpt {
-  private String answerImageUrl;
+  private final String answerImageUrl;
   
   /**
    * Constructs an AnsOptImg object with the given answer option string, and the image url.
@@ -5,7 +5,7 @@ package model;
  * @author stefanieim
  */
 public class AnsOptString implements AnsOpt {
-  private String answerString;
+  private final String answerString;
   
   /**
    * Constructs an AnsOptString object with the given string, and sets this 
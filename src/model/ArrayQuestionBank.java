@@ -0,0 +1,62 @@
+package model;
+
+import java.util.Map;
+
+import fileReader.XmlFileReader;
+
+/**
+ * Represents a question bank that keeps all of its question sets in an array, indexed from zero.
+ * Looking up a question set is a plain array access, without boxing the index or hashing it.
+ *
+ * The bank is immutable (as are its question sets and answer options), so a single instance can be loaded once
+ * and shared by any number of game sessions, on any number of threads, without locking.
+ */
+public class ArrayQuestionBank implements QuestionBank {
+  private final QuestionSet[] questionSets;
+
+  /**
+   * Constructs an ArrayQuestionBank with the given question sets.
+   * The array is copied, so that changing it afterwards does not change the bank.
+   * @param questionSets the question sets, in order (zero-based)
+   */
+  public ArrayQuestionBank(QuestionSet[] questionSets) {
+    this.questionSets = questionSets.clone();
+  }
+
+  /**
+   * Calls the go() method of the given reader, and returns an ArrayQuestionBank with the question sets read.
+   * @param reader the given XML reader
+   * @return the question bank
+   */
+  public static ArrayQuestionBank read(XmlFileReader reader) {
+    reader.go();
+    //reader.consolePrintConvertedQuestionSets(); //uncomment for double-checking purposes
+    return fromMap(reader.getResultingQuestionSetList());
+  }
+
+  /**
+   * Returns an ArrayQuestionBank with the question sets of the given indexed map.
+   * @param allQuestionSets an indexed map of all QuestionSet objects (zero-based)
+   * @return the question bank
+   */
+  public static ArrayQuestionBank fromMap(Map<Integer, QuestionSet> allQuestionSets) {
+    QuestionSet[] questionSets = new QuestionSet[allQuestionSets.size()];
+    for (int i = 0; i < questionSets.length; i++) {
+      questionSets[i] = allQuestionSets.get(i);
+    }
+    return new ArrayQuestionBank(questionSets);
+  }
+
+  @Override
+  public int size() {
+    return this.questionSets.length;
+  }
+
+  @Override
+  public QuestionSet getQSetAt(int idx) {
+    if (idx < 0 || idx >= this.questionSets.length) {
+      return null;
+    }
+    return this.questionSets[idx];
+  }
+}
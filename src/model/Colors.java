@@ -2,43 +2,56 @@ package model;
 
 
 /**
- * This class contains the constants used for color r g b values used for the Trivia game canvas.
+ * This class contains the constants used for the colors of the Trivia game canvas.
+ * Each color is packed once into an opaque ARGB int (the same int Processing's color(r, g, b) returns),
+ * so that it can be passed to fill(), stroke() and background() as it is, and cannot be modified.
+ * The colors are assigned to the elements of the screens by a Theme.
  * @author stefanieim
  */
 public class Colors {
 
-  public final static int[] WHITE = new int[]{255,255,255};
-  public final static int[] BLACK = new int[]{0,0,0};
-  public final static int[] GREY = new int[] {150,150,150};
+  public final static int WHITE = rgb(255,255,255);
+  public final static int BLACK = rgb(0,0,0);
+  public final static int GREY = rgb(150,150,150);
   
-  public final static int[] PURPLE_LIGHTEST = new int[]{246,222,255};
-  public final static int[] PURPLE_LIGHTESTHOVER = new int[]{253,246,255};
+  public final static int PURPLE_LIGHTEST = rgb(246,222,255);
+  public final static int PURPLE_LIGHTESTHOVER = rgb(253,246,255);
   
-  public final static int[] PURPLE_LIGHTER = new int[]{235,178,255};
-  public final static int[] PURPLE_LIGHTERHOVER = new int[]{247,225,255};
+  public final static int PURPLE_LIGHTER = rgb(235,178,255);
+  public final static int PURPLE_LIGHTERHOVER = rgb(247,225,255);
   
-  public final static int[] PURPLE_MEDIUM = new int[]{235,178,255};
+  public final static int PURPLE_MEDIUM = rgb(235,178,255);
   
-  public final static int[] PURPLE = new int[]{142,0,191};
+  public final static int PURPLE = rgb(142,0,191);
   
-  public final static int[] PURPLE_DARKER = new int[]{105,24,133};
-  public final static int[] PURPLE_DARKERHOVER = new int[]{130,41,161};
+  public final static int PURPLE_DARKER = rgb(105,24,133);
+  public final static int PURPLE_DARKERHOVER = rgb(130,41,161);
   
-  public final static int[] PURPLE_DARKEST = new int[]{72,2,96};
-  public final static int[] PURPLE_DARKESTHOVER = new int[]{95,36,115};
+  public final static int PURPLE_DARKEST = rgb(72,2,96);
+  public final static int PURPLE_DARKESTHOVER = rgb(95,36,115);
 
-  public final static int[] BRICKLIGHTER = new int[]{245,151,151};
-  public final static int[] BRICKLIGHTERHOVER = new int[]{255,205,205};
+  public final static int BRICKLIGHTER = rgb(245,151,151);
+  public final static int BRICKLIGHTERHOVER = rgb(255,205,205);
   
-  public final static int[] BRICK = new int[]{201,106,106};
-  public final static int[] BRICKHOVER = new int[]{233,169,169};
+  public final static int BRICK = rgb(201,106,106);
+  public final static int BRICKHOVER = rgb(233,169,169);
   
-  public final static int[] BRICKDARKER = new int[]{138,37,37};
-  public final static int[] BRICKDARKERHOVER = new int[]{160,60,60};
+  public final static int BRICKDARKER = rgb(138,37,37);
+  public final static int BRICKDARKERHOVER = rgb(160,60,60);
   
-  public final static int[] RED = new int[]{191,83,122};
-  public final static int[] PINK = new int[]{242,189,208};
-  public final static int[] GREEN = new int[]{108,182,146};
+  public final static int RED = rgb(191,83,122);
+  public final static int PINK = rgb(242,189,208);
+  public final static int GREEN = rgb(108,182,146);
+
+  /**
+   * Packs the given r g b values into an opaque ARGB int.
+   * @param r the r value (0-255)
+   * @param g the g value (0-255)
+   * @param b the b value (0-255)
+   * @return the packed color
+   */
+  public static int rgb(int r, int g, int b) {
+    return 0xFF000000 | (r << 16) | (g << 8) | b;
+  }
  
 }
-
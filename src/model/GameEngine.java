@@ -0,0 +1,338 @@
+package model;
+
+import model.Model.ModelMode;
+
+/**
+ * Represents the flow of a Trivia game: choosing the mode, starting, answering, moving on and resetting.
+ * Drives the state, the score and the current question set of a Model, without drawing anything,
+ * so that games can be played (and measured) without a Processing window. The Processing sketch is one client of it.
+ *
+ * Every action is only allowed in the game states it can be taken from (the same states in which the
+ * sketch listens to the matching button), and throws an IllegalStateException otherwise.
+ * A GameEngine is not thread-safe: each session should use its own.
+ * Its answers and final score can be reported to statistics shared by all sessions (QuestionStats, Leaderboard),
+ * which are thread-safe.
+ */
+public class GameEngine {
+  private final Model model;
+  private final boolean visualAvailable;
+  //whether the question sets contain their images yet (they can be attached later, see attachVisualBank())
+  private boolean visualLoaded;
+  private ModelMode mode;
+  //the state the "are you sure?" pop up was shown from, to go back to when it is closed
+  private GameState stateBeforeReset;
+  //shared by all sessions, or null if this game is not reported
+  private final QuestionStats stats;
+  private final Leaderboard leaderboard;
+  private final long playerId;
+
+  /**
+   * Constructs a GameEngine that plays the game of the given model.
+   * The mode is set to VISUAL if the model's question sets contain images, and to SIMPLE otherwise,
+   * until the player chooses one.
+   * @param model the model of the game, in its INTRO_CHOOSEMODE stage
+   * @param visualAvailable whether the model's question sets contain images (so that the VISUAL mode can be chosen)
+   */
+  public GameEngine(Model model, boolean visualAvailable) {
+    this(model, visualAvailable, null, null, 0);
+  }
+
+  /**
+   * Constructs a GameEngine that plays the game of the given model,
+   * and reports every answer to the given statistics and every final score to the given leaderboard.
+   * @param model the model of the game, in its INTRO_CHOOSEMODE stage
+   * @param visualAvailable whether the model's question sets contain images (so that the VISUAL mode can be chosen)
+   * @param stats the statistics of the model's question sets, or null
+   * @param leaderboard the leaderboard, or null
+   * @param playerId the id of the player on the leaderboard
+   */
+  public GameEngine(Model model, boolean visualAvailable, QuestionStats stats, Leaderboard leaderboard, long playerId) {
+    this(model, visualAvailable, visualAvailable, stats, leaderboard, playerId);
+  }
+
+  /**
+   * Constructs a GameEngine that plays the game of the given model, whose question sets may not contain
+   * their images yet, even though the VISUAL mode can be chosen: the images are then attached once they are loaded
+   * (see attachVisualBank()), and the VISUAL game can only be started after that.
+   * @param model the model of the game, in its INTRO_CHOOSEMODE stage
+   * @param visualAvailable whether the VISUAL mode can be chosen
+   * @param visualLoaded whether the model's question sets already contain images
+   */
+  public GameEngine(Model model, boolean visualAvailable, boolean visualLoaded) {
+    this(model, visualAvailable, visualLoaded, null, null, 0);
+  }
+
+  private GameEngine(Model model, boolean visualAvailable, boolean visualLoaded,
+      QuestionStats stats, Leaderboard leaderboard, long playerId) {
+    this.model = model;
+    this.visualAvailable = visualAvailable;
+    this.visualLoaded = visualAvailable && visualLoaded;
+    this.mode = defaultMode();
+    this.stats = stats;
+    this.leaderboard = leaderboard;
+    this.playerId = playerId;
+  }
+
+  /**
+   * Constructs a GameEngine that plays a new game on the given (possibly shared) question bank.
+   * @param questionBank the question bank
+   * @param visualAvailable whether the bank's question sets contain images (so that the VISUAL mode can be chosen)
+   */
+  public GameEngine(QuestionBank questionBank, boolean visualAvailable) {
+    this(new Model(questionBank), visualAvailable);
+  }
+
+  /**
+   * Returns the mode used until the player chooses one.
+   */
+  private ModelMode defaultMode() {
+    return this.visualAvailable ? ModelMode.VISUAL : ModelMode.SIMPLE;
+  }
+
+  /**
+   * Throws an IllegalStateException if the game is not in one of the given states.
+   * @param action the name of the action, for the error message
+   * @param allowed the states the action can be taken from
+   */
+  private void checkState(String action, GameState... allowed) {
+    for (GameState state : allowed) {
+      if (this.model.getState() == state) {
+        return;
+      }
+    }
+    throw new IllegalStateException(action + " is not allowed in state " + this.model.getState());
+  }
+
+  //ACTIONS----------------------------------------------------------------------------------------
+
+  /**
+   * Chooses the mode of the game, and moves onto the START screen.
+   * @param mode the chosen mode
+   * @throws IllegalArgumentException if the VISUAL mode is chosen, but the question sets do not contain images
+   */
+  public void chooseMode(ModelMode mode) {
+    checkState("chooseMode", GameState.INTRO_CHOOSEMODE);
+    if (mode == ModelMode.VISUAL && !this.visualAvailable) {
+      throw new IllegalArgumentException("the loaded question sets do not contain images");
+    }
+    this.mode = mode;
+    this.model.setState(GameState.INTRO_START);
+  }
+
+  /**
+   * Starts the game, showing the first question.
+   * @throws IllegalStateException if there are no question sets,
+   *     or if the VISUAL mode was chosen, but the images are not attached yet
+   */
+  public void start() {
+    checkState("start", GameState.INTRO_START);
+    if (this.model.getNumOfQSets() == 0) {
+      throw new IllegalStateException("there are no question sets");
+    }
+    if (this.mode == ModelMode.VISUAL && !this.visualLoaded) {
+      throw new IllegalStateException("the images are not loaded yet");
+    }
+    this.model.setState(GameState.QUESTION_SCREEN);
+  }
+
+  /**
+   * Answers the current question with the answer option at the given index.
+   * If it is the correct one, the score is incremented by one and the correct pop up is shown.
+   * Otherwise, the incorrect pop up is shown.
+   * @param ansOptIdx the index of the chosen answer option
+   * @return true if the chosen answer option is the correct one
+   * @throws IllegalArgumentException if the current question set has no answer option at the given index
+   */
+  public boolean answer(int ansOptIdx) {
+    checkState("answer", GameState.QUESTION_SCREEN);
+    QuestionSet currentQSet = getCurrentQSet();
+    if (ansOptIdx < 0 || ansOptIdx >= currentQSet.getNumOfAnsOpts()) {
+      throw new IllegalArgumentException("no answer option " + ansOptIdx + " in question set " + currentQSet.getId());
+    }
+    boolean correct = ansOptIdx == currentQSet.getCorrectAnsOptIdx();
+    if (this.stats != null) {
+      this.stats.record(this.model.getCurrentQuestionSetIdx(), correct);
+    }
+    if (correct) {
+      this.model.scoreUp();
+      this.model.setState(GameState.POPUP_CORRECT);
+    }
+    else {
+      this.model.setState(GameState.POPUP_INCORRECT);
+    }
+    return correct;
+  }
+
+  /**
+   * Closes the result pop up and moves onto the next question,
+   * except for when the player is on the last question, for which the game moves onto the final screen
+   * (and the final score is submitted to the leaderboard).
+   */
+  public void next() {
+    checkState("next", GameState.POPUP_CORRECT, GameState.POPUP_INCORRECT);
+    if (this.model.getCurrentQuestionSetIdx() == this.model.getNumOfQSets() - 1) { //we are on the last question
+      this.model.setState(GameState.FINAL);
+      if (this.leaderboard != null) {
+        this.leaderboard.submit(this.playerId, this.model.getScore());
+      }
+    }
+    else {
+      this.model.nextQuestionSet();
+      this.model.setState(GameState.QUESTION_SCREEN);
+    }
+  }
+
+  /**
+   * Asks to reset the game, showing the "are you sure?" pop up.
+   * On the final screen, the game is reset right away (PLAY AGAIN).
+   */
+  public void requestReset() {
+    checkState("requestReset", GameState.INTRO_START, GameState.QUESTION_SCREEN,
+        GameState.POPUP_CORRECT, GameState.POPUP_INCORRECT, GameState.FINAL);
+    if (this.model.getState() == GameState.FINAL) {
+      reset();
+    }
+    else {
+      this.stateBeforeReset = this.model.getState();
+      this.model.setState(GameState.POPUP_RESET);
+    }
+  }
+
+  /**
+   * Closes the "are you sure?" pop up, going back to the state it was shown from
+   * (e.g. to the correct pop up, so that the same question cannot be answered twice).
+   * While the images of the VISUAL mode are not attached, it always goes back to the START screen,
+   * as no question can be shown without them.
+   */
+  public void cancelReset() {
+    checkState("cancelReset", GameState.POPUP_RESET);
+    if (this.mode == ModelMode.VISUAL && !this.visualLoaded) {
+      this.model.setState(GameState.INTRO_START);
+    }
+    else {
+      this.model.setState(this.stateBeforeReset);
+    }
+    this.stateBeforeReset = null;
+  }
+
+  /**
+   * Replaces the question sets of the game with the same question sets, with their images attached
+   * (e.g. by VisualMetadataReader), so that the VISUAL game can be started.
+   * As only the images are added, it can be called in any state.
+   * @param visualBank the question sets with their images, in the same order
+   * @throws IllegalStateException if the VISUAL mode is not available
+   * @throws IllegalArgumentException if the bank does not have the same number of question sets
+   */
+  public void attachVisualBank(QuestionBank visualBank) {
+    if (!this.visualAvailable) {
+      throw new IllegalStateException("the VISUAL mode is not available");
+    }
+    if (visualBank.size() != this.model.getNumOfQSets()) {
+      throw new IllegalArgumentException("the bank has " + visualBank.size() + " question sets instead of "
+          + this.model.getNumOfQSets());
+    }
+    this.model.setQuestionBank(visualBank);
+    this.visualLoaded = true;
+  }
+
+  /**
+   * Resets the game to its INTRO_CHOOSEMODE stage, with a score of zero and the first question set.
+   * Can be called in any state; the question sets are kept, and not loaded again.
+   */
+  public void reset() {
+    this.model.reset();
+    this.mode = defaultMode();
+    this.stateBeforeReset = null;
+  }
+
+  //GETTERS----------------------------------------------------------------------------------------
+
+  /**
+   * Returns the current GameState of the game.
+   * @return the current game state
+   */
+  public GameState getState() {
+    return this.model.getState();
+  }
+
+  /**
+   * Returns the state the "are you sure?" pop up was shown from (the screen it covers).
+   * @return the state before the reset was requested, or null if the pop up is not shown
+   */
+  public GameState getStateBeforeReset() {
+    return this.model.getState() == GameState.POPUP_RESET ? this.stateBeforeReset : null;
+  }
+
+  /**
+   * Returns the mode of the game: the one chosen by the player, or the default one before they choose.
+   * @return the mode of the game
+   */
+  public ModelMode getMode() {
+    return this.mode;
+  }
+
+  /**
+   * Returns whether the VISUAL mode can be chosen.
+   * @return true if the question sets contain images
+   */
+  public boolean isVisualAvailable() {
+    return this.visualAvailable;
+  }
+
+  /**
+   * Returns whether the question sets contain their images, so that the VISUAL game can be started.
+   * @return true if the images are attached
+   */
+  public boolean isVisualLoaded() {
+    return this.visualLoaded;
+  }
+
+  /**
+   * Returns the question sets of the game.
+   * @return the question bank
+   */
+  public QuestionBank getQuestionBank() {
+    return this.model.getQuestionBank();
+  }
+
+  /**
+   * Returns the current score of the game.
+   * @return the current score
+   */
+  public int getScore() {
+    return this.model.getScore();
+  }
+
+  /**
+   * Returns the index of the question set we are on.
+   * @return the index of the current question set
+   */
+  public int getCurrentQuestionSetIdx() {
+    return this.model.getCurrentQuestionSetIdx();
+  }
+
+  /**
+   * Returns the question set we are on.
+   * @return the current question set
+   */
+  public QuestionSet getCurrentQSet() {
+    return this.model.getQSetAt(this.model.getCurrentQuestionSetIdx());
+  }
+
+  /**
+   * Returns the number of question sets in the game.
+   * @return the number of question sets
+   */
+  public int getNumOfQSets() {
+    return this.model.getNumOfQSets();
+  }
+
+  /**
+   * Returns the QuestionSet object at the given index.
+   * @param idx the given index at which the method retrieves a question set
+   * @return the question set at the given index.
+   */
+  public QuestionSet getQSetAt(int idx) {
+    return this.model.getQSetAt(idx);
+  }
+}
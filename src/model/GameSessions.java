@@ -0,0 +1,108 @@
+package model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents the game sessions of many players, all playing on one shared question bank.
+ * The bank is loaded once and only read by the sessions, while each session (a GameEngine and its Model)
+ * only holds its own state, score and question set index.
+ *
+ * Every answer is recorded in the per question statistics, and every final score is submitted to the leaderboard,
+ * both shared by all sessions and updated without a lock.
+ *
+ * Sessions can be opened, looked up and closed from any thread. A single session is not thread-safe though:
+ * the actions of one session should not be taken from several threads at once.
+ */
+public class GameSessions {
+  private final QuestionBank questionBank;
+  private final boolean visualAvailable;
+  private final Map<Long, GameEngine> sessions;
+  private final AtomicLong nextId;
+  private final QuestionStats stats;
+  private final Leaderboard leaderboard;
+
+  /**
+   * Constructs a GameSessions object without any session, playing on the given question bank.
+   * @param questionBank the question bank shared by all sessions (see ArrayQuestionBank)
+   * @param visualAvailable whether the bank's question sets contain images
+   */
+  public GameSessions(QuestionBank questionBank, boolean visualAvailable) {
+    this.questionBank = questionBank;
+    this.visualAvailable = visualAvailable;
+    this.sessions = new ConcurrentHashMap<>();
+    this.nextId = new AtomicLong();
+    this.stats = new QuestionStats(questionBank.size());
+    this.leaderboard = new Leaderboard();
+  }
+
+  /**
+   * Opens a new session, in its INTRO_CHOOSEMODE stage.
+   * @return the id of the new session
+   */
+  public long open() {
+    long id = this.nextId.getAndIncrement();
+    Model model = new Model(this.questionBank);
+    this.sessions.put(id, new GameEngine(model, this.visualAvailable, this.stats, this.leaderboard, id));
+    return id;
+  }
+
+  /**
+   * Returns the session with the given id.
+   * @param id the id of the session
+   * @return the game engine of the session, or null if there is no open session with the given id
+   */
+  public GameEngine get(long id) {
+    return this.sessions.get(id);
+  }
+
+  /**
+   * Closes the session with the given id.
+   * @param id the id of the session
+   * @return true if there was an open session with the given id
+   */
+  public boolean close(long id) {
+    return this.sessions.remove(id) != null;
+  }
+
+  /**
+   * Returns the number of open sessions.
+   * @return the number of open sessions
+   */
+  public int size() {
+    return this.sessions.size();
+  }
+
+  /**
+   * Returns the question bank shared by all sessions.
+   * @return the question bank
+   */
+  public QuestionBank getQuestionBank() {
+    return this.questionBank;
+  }
+
+  /**
+   * Returns the statistics of the question sets, over all sessions.
+   * @return the question statistics
+   */
+  public QuestionStats getStats() {
+    return this.stats;
+  }
+
+  /**
+   * Returns the leaderboard of the final scores, over all sessions.
+   * @return the leaderboard
+   */
+  public Leaderboard getLeaderboard() {
+    return this.leaderboard;
+  }
+
+  /**
+   * Returns whether the VISUAL mode can be chosen in the sessions.
+   * @return true if the question sets contain images
+   */
+  public boolean isVisualAvailable() {
+    return this.visualAvailable;
+  }
+}
@@ -0,0 +1,76 @@
+package model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * Represents a read-only Map view over values that are indexed from zero (0 to size-1),
+ * for callers that still expect a Map<Integer, V>. Values are only retrieved when they are looked up.
+ * @param <V> the type of the values
+ */
+public class IndexedMapView<V> extends AbstractMap<Integer, V> {
+  private final IntSupplier size;
+  private final IntFunction<V> getter;
+
+  /**
+   * Constructs an IndexedMapView with the given size and value getter.
+   * @param size returns the current number of values
+   * @param getter returns the value at a given index
+   */
+  public IndexedMapView(IntSupplier size, IntFunction<V> getter) {
+    this.size = size;
+    this.getter = getter;
+  }
+
+  @Override
+  public int size() {
+    return this.size.getAsInt();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof Integer && 0 <= (Integer) key && (Integer) key < this.size();
+  }
+
+  @Override
+  public V get(Object key) {
+    return this.containsKey(key) ? this.getter.apply((Integer) key) : null;
+  }
+
+  @Override
+  public Set<Map.Entry<Integer, V>> entrySet() {
+    return new AbstractSet<Map.Entry<Integer, V>>() {
+      @Override
+      public int size() {
+        return IndexedMapView.this.size();
+      }
+
+      @Override
+      public Iterator<Map.Entry<Integer, V>> iterator() {
+        return new Iterator<Map.Entry<Integer, V>>() {
+          private int idx = 0;
+
+          @Override
+          public boolean hasNext() {
+            return this.idx < IndexedMapView.this.size();
+          }
+
+          @Override
+          public Map.Entry<Integer, V> next() {
+            if (!this.hasNext()) {
+              throw new NoSuchElementException();
+            }
+            int key = this.idx++;
+            return new AbstractMap.SimpleImmutableEntry<>(key, IndexedMapView.this.getter.apply(key));
+          }
+        };
+      }
+    };
+  }
+}
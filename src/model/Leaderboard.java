@@ -0,0 +1,116 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Represents the leaderboard of the best final scores over all game sessions, keeping the top K of them.
+ *
+ * The entries are kept in an immutable array sorted from the best score down, which is replaced as a whole
+ * with a compare-and-set whenever a score makes it in. Submitting never takes a lock, and a score that is
+ * too low for a full board is rejected after a single read, without allocating. Reading the board
+ * only returns the current array, so snapshots are free and always consistent.
+ * Among equal scores, the one submitted first ranks higher.
+ */
+public class Leaderboard {
+  public final static int DEFAULT_CAPACITY = 10;
+
+  /**
+   * Represents a final score on the leaderboard.
+   */
+  public final static class Entry {
+    public final long playerId;
+    public final int score;
+
+    private Entry(long playerId, int score) {
+      this.playerId = playerId;
+      this.score = score;
+    }
+
+    @Override
+    public String toString() {
+      return this.playerId + ":" + this.score;
+    }
+  }
+
+  private final int capacity;
+  private final AtomicReference<Entry[]> top;
+
+  /**
+   * Constructs an empty leaderboard with the default capacity.
+   */
+  public Leaderboard() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty leaderboard.
+   * @param capacity the number of best scores to keep (K)
+   */
+  public Leaderboard(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.top = new AtomicReference<>(new Entry[0]);
+  }
+
+  /**
+   * Submits the final score of a player.
+   * @param playerId the id of the player (e.g. the id of their session)
+   * @param score the final score
+   * @return true if the score made it onto the leaderboard
+   */
+  public boolean submit(long playerId, int score) {
+    Entry entry = null;
+    while (true) {
+      Entry[] current = this.top.get();
+      //equal scores submitted earlier stay ahead
+      int pos = current.length;
+      while (pos > 0 && current[pos - 1].score < score) {
+        pos--;
+      }
+      if (pos >= this.capacity) {
+        return false;
+      }
+      if (entry == null) {
+        entry = new Entry(playerId, score);
+      }
+      Entry[] updated = new Entry[Math.min(current.length + 1, this.capacity)];
+      System.arraycopy(current, 0, updated, 0, pos);
+      updated[pos] = entry;
+      System.arraycopy(current, pos, updated, pos + 1, updated.length - pos - 1);
+      if (this.top.compareAndSet(current, updated)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Returns the current entries, from the best score down.
+   * The returned list is a snapshot: it does not change when scores are submitted afterwards.
+   * @return a read-only list of at most K entries
+   */
+  public List<Entry> snapshot() {
+    return Collections.unmodifiableList(Arrays.asList(this.top.get()));
+  }
+
+  /**
+   * Returns the lowest score that is currently on a full leaderboard.
+   * @return the lowest score on the board, or Integer.MIN_VALUE if the board is not full yet
+   */
+  public int getMinScore() {
+    Entry[] current = this.top.get();
+    return current.length < this.capacity ? Integer.MIN_VALUE : current[current.length - 1].score;
+  }
+
+  /**
+   * Returns the number of scores this leaderboard keeps (K).
+   * @return the capacity
+   */
+  public int getCapacity() {
+    return this.capacity;
+  }
+}
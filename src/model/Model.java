@@ -2,37 +2,72 @@ package model;
 
 import java.util.Map;
 
-import fileReader.VisualXmlFileReader;
 import fileReader.XmlFileReader;
-import main.Processing;
 
 /**
  * Represents the model of the game, which stores all data necessary to play a Trivia game.
+ * The question sets are kept in a QuestionBank, which can be shared by many models (e.g. one per player),
+ * while the state, score and current question set index are the model's own.
+ * A model is therefore only a few dozen bytes on top of the shared bank.
  * @author stefanieim
  */
 public class Model {
   public enum ModelMode{SIMPLE, VISUAL;} //the model's mode options
 
-  private final XmlFileReader reader;
   private GameState state;
   private int score;
-  private Map<Integer, QuestionSet> allQuestionSets;
+  private QuestionBank questionBank;
   private int currentQuestionSetIdx;
 
   /**
    * Constructs a model with a given XML reader object.
    * Sets up the game to be in it's INTRO stage, a score set to zero, the current question set's index (counter),
-   * then calls the go() method of the reader, 
+   * then calls the go() method of the reader.
+   * The question sets read are only used by this model; to share them, read them once into a bank
+   * with ArrayQuestionBank.read() and use Model(QuestionBank) instead.
    * @param reader the given XML reader
    */
   public Model(XmlFileReader reader) {
+    this(ArrayQuestionBank.read(reader));
+  }
+
+  /**
+   * Constructs a model with a given bank of question sets.
+   * Sets up the game to be in it's INTRO stage, a score set to zero, and the current question set's index (counter).
+   * @param questionBank the given question bank, which may be shared with other models
+   */
+  public Model(QuestionBank questionBank) {
+    this.state = GameState.INTRO_CHOOSEMODE;
+    this.score = 0;
+    this.currentQuestionSetIdx = 0;
+    this.questionBank = questionBank;
+  }
+
+  /**
+   * Returns the question bank of this model.
+   * @return the question bank
+   */
+  public QuestionBank getQuestionBank() {
+    return this.questionBank;
+  }
+
+  /**
+   * Replaces the question bank of this model with one of the same question sets (e.g. with their images attached).
+   * The state, score and current question set index are kept.
+   * @param questionBank the new question bank
+   */
+  public void setQuestionBank(QuestionBank questionBank) {
+    this.questionBank = questionBank;
+  }
+
+  /**
+   * Sets the game back to it's INTRO stage, with a score set to zero and the first question set.
+   * The question sets are kept.
+   */
+  public void reset() {
     this.state = GameState.INTRO_CHOOSEMODE;
     this.score = 0;
     this.currentQuestionSetIdx = 0;
-    this.reader = reader;
-    this.reader.go();
-    this.allQuestionSets = this.reader.getResultingQuestionSetList();
-    //this.reader.consolePrint(); //uncomment for double-checking purposes
   }
 
   /**
@@ -67,11 +102,21 @@ public class Model {
   }
 
   /**
-   * Returns the map of all question sets in this game model.
+   * Returns a read-only map view of all question sets in this game model.
+   * The question sets are only retrieved from the question bank when they are looked up,
+   * so prefer getNumOfQSets() and getQSetAt() over iterating this map.
    * @return an indexed map of all QuestionSet objects
    */
   public  Map<Integer, QuestionSet> getAllQSets() {
-    return this.allQuestionSets;
+    return new IndexedMapView<>(this.questionBank::size, this.questionBank::getQSetAt);
+  }
+
+  /**
+   * Returns the number of question sets in this game model.
+   * @return the number of question sets
+   */
+  public int getNumOfQSets() {
+    return this.questionBank.size();
   }
 
   /**
@@ -80,7 +125,7 @@ public class Model {
    * @return the question set at the given index.
    */
   public QuestionSet getQSetAt(int idx) {
-    return this.allQuestionSets.get(idx);
+    return this.questionBank.getQSetAt(idx);
   }
 
   /**
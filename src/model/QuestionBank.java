@@ -0,0 +1,23 @@
+package model;
+
+/**
+ * Represents the bank of all question sets used in a Trivia game, indexed from zero.
+ * Implementations may keep every question set in memory, or only decode them when they are asked for.
+ * Implementations must be safe to read from several threads at once, as one bank is shared by all game sessions.
+ */
+public interface QuestionBank {
+
+  /**
+   * Returns the number of question sets in this bank.
+   * @return the number of question sets
+   */
+  int size();
+
+  /**
+   * Returns the question set at the given index.
+   * @param idx the index of the question set (zero-based)
+   * @return the question set at the given index, or null if there is none
+   */
+  QuestionSet getQSetAt(int idx);
+
+}
@@ -23,10 +23,25 @@ public interface QuestionSet {
 
   /**
    * Returns the map of answer options as indexed AnsOpt objects.
+   * This is a read-only view kept for compatibility; prefer getNumOfAnsOpts() and getAnsOptAt().
    * @return
    */
   Map<Integer, AnsOpt> getMapOfAnsOpts();
 
+  /**
+   * Returns the number of answer options of this question set.
+   * @return the number of answer options
+   */
+  int getNumOfAnsOpts();
+
+  /**
+   * Returns the answer option at the given index.
+   * @param idx the index of the answer option (zero-based)
+   * @return the answer option at the given index
+   * @throws ArrayIndexOutOfBoundsException if there is no answer option at the given index
+   */
+  AnsOpt getAnsOptAt(int idx);
+
   /**
    * 
    * @return
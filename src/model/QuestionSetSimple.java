@@ -4,28 +4,53 @@ import java.util.Map;
 
 /**
  * Represents a simple question set which contains all data required for a complete text-only question set.
- * Contains an id, the question string, a map of answer options, and the index of the correct answer option.
+ * Contains an id, the question string, an array of answer options, and the index of the correct answer option.
  * @author stefanieim
  */
 public class QuestionSetSimple implements QuestionSet {
-  private int id;
-  private String qString;
-  private Map<Integer, AnsOpt> mapOfAnsOpts;
-  private int correctAnsOptIdx;
+  private final int id;
+  private final String qString;
+  private final AnsOpt[] ansOpts;
+  private final int correctAnsOptIdx;
 
   /**
-   * Constructs a QuestionSetSimple with an id, question string, map of answer options, and the index for the correct answer.
+   * Constructs a QuestionSetSimple with an id, question string, array of answer options, and the index for the correct answer.
+   * The array is copied, so that changing it afterwards does not change the question set.
    * @param id the question's integer id (zero-based)
    * @param qString the question's content string (the actual question)
-   * @param mapOfAnsOpts an indexed map of AnsOpt objects (zero-based)
+   * @param ansOpts the answer options, in order (zero-based)
    * @param correctAnsOptIdx the integer index of the correct answer option
    */
-  public QuestionSetSimple(int id, String qString, Map<Integer, AnsOpt> mapOfAnsOpts, int correctAnsOptIdx) {
+  public QuestionSetSimple(int id, String qString, AnsOpt[] ansOpts, int correctAnsOptIdx) {
     this.id = id;
     this.qString = qString;
-    this.mapOfAnsOpts = mapOfAnsOpts;
+    this.ansOpts = ansOpts.clone();
     this.correctAnsOptIdx = correctAnsOptIdx;
   }
+
+  /**
+   * Constructs a QuestionSetSimple with an id, question string, map of answer options, and the index for the correct answer.
+   * @param id the question's integer id (zero-based)
+   * @param qString the question's content string (the actual question)
+   * @param mapOfAnsOpts an indexed map of AnsOpt objects (zero-based)
+   * @param correctAnsOptIdx the integer index of the correct answer option
+   */
+  public QuestionSetSimple(int id, String qString, Map<Integer, AnsOpt> mapOfAnsOpts, int correctAnsOptIdx) {
+    this(id, qString, toArray(mapOfAnsOpts), correctAnsOptIdx);
+  }
+
+  /**
+   * Copies the given indexed map of answer options into an array.
+   * @param mapOfAnsOpts an indexed map of AnsOpt objects (zero-based)
+   * @return the answer options, in order
+   */
+  protected static AnsOpt[] toArray(Map<Integer, AnsOpt> mapOfAnsOpts) {
+    AnsOpt[] ansOpts = new AnsOpt[mapOfAnsOpts.size()];
+    for (int i = 0; i < ansOpts.length; i++) {
+      ansOpts[i] = mapOfAnsOpts.get(i);
+    }
+    return ansOpts;
+  }
   
   @Override
   public int getId() {
@@ -39,7 +64,17 @@ public class QuestionSetSimple implements QuestionSet {
   
   @Override
   public Map<Integer, AnsOpt> getMapOfAnsOpts() {
-    return this.mapOfAnsOpts;
+    return new IndexedMapView<>(this::getNumOfAnsOpts, this::getAnsOptAt);
+  }
+
+  @Override
+  public int getNumOfAnsOpts() {
+    return this.ansOpts.length;
+  }
+
+  @Override
+  public AnsOpt getAnsOptAt(int idx) {
+    return this.ansOpts[idx];
   }
   
   @Override
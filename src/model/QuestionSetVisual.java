@@ -9,7 +9,7 @@ import java.util.Map;
  * @author stefanieim
  */
 public class QuestionSetVisual extends QuestionSetSimple implements QuestionSet {
-  private String qImageUrl;
+  private final String qImageUrl;
 
 
   /**
@@ -26,6 +26,21 @@ public class QuestionSetVisual extends QuestionSetSimple implements QuestionSet
     this.qImageUrl = imageUrl;
   }
 
+  /**
+   * Constructs a QuestionSetVisual with an id, question string, array of answer options, and the index for the correct answer,
+   * as well as an image url for the question.
+   * The array is copied, so that changing it afterwards does not change the question set.
+   * @param id the question's integer id (zero-based)
+   * @param qString the question's content string (the actual question)
+   * @param ansOpts the answer options, in order (zero-based)
+   * @param correctAnsOptIdx the integer index of the correct answer option
+   * @param imageUrl the string url for the question image.
+   */
+  public QuestionSetVisual(int id, String qString, AnsOpt[] ansOpts, int correctAnsOptIdx, String imageUrl) {
+    super(id, qString, ansOpts, correctAnsOptIdx);
+    this.qImageUrl = imageUrl;
+  }
+
 
   @Override
   public String getQuestionImageUrl() throws IllegalStateException {
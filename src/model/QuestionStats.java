@@ -0,0 +1,67 @@
+package model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents the correctness statistics of every question set of a bank: how many times it was answered,
+ * and how many of those answers were correct, over all game sessions.
+ *
+ * The counters are LongAdders, which spread concurrent increments over several cells instead of contending
+ * on a single value, so that many sessions can record their answers at once without a lock.
+ * Reading a counter sums its cells, and is only exact once no answers are being recorded.
+ */
+public class QuestionStats {
+  private final LongAdder[] attempts;
+  private final LongAdder[] correct;
+
+  /**
+   * Constructs a QuestionStats object with all counters at zero.
+   * @param numOfQSets the number of question sets in the bank
+   */
+  public QuestionStats(int numOfQSets) {
+    this.attempts = new LongAdder[numOfQSets];
+    this.correct = new LongAdder[numOfQSets];
+    for (int i = 0; i < numOfQSets; i++) {
+      this.attempts[i] = new LongAdder();
+      this.correct[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records an answer to the question set at the given index.
+   * @param qSetIdx the index of the answered question set
+   * @param wasCorrect whether the answer was correct
+   */
+  public void record(int qSetIdx, boolean wasCorrect) {
+    this.attempts[qSetIdx].increment();
+    if (wasCorrect) {
+      this.correct[qSetIdx].increment();
+    }
+  }
+
+  /**
+   * Returns the number of answers to the question set at the given index.
+   * @param qSetIdx the index of the question set
+   * @return the number of answers
+   */
+  public long getAttempts(int qSetIdx) {
+    return this.attempts[qSetIdx].sum();
+  }
+
+  /**
+   * Returns the number of correct answers to the question set at the given index.
+   * @param qSetIdx the index of the question set
+   * @return the number of correct answers
+   */
+  public long getCorrect(int qSetIdx) {
+    return this.correct[qSetIdx].sum();
+  }
+
+  /**
+   * Returns the number of question sets with statistics.
+   * @return the number of question sets
+   */
+  public int size() {
+    return this.attempts.length;
+  }
+}
@@ -0,0 +1,109 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Represents a color theme of the Trivia game canvas: the packed color (see Colors) of each role
+ * an element of a screen can have (e.g. the background, an answer option row, its hover state, a pop up).
+ * A Theme is immutable, and the colors are only packed once, when it is created: the draw code passes them to
+ * fill(), stroke() and background() as they are, and a theme can be swapped for another one at any time.
+ */
+public class Theme {
+  /**
+   * Represents the roles of the colors of a theme.
+   */
+  public enum Role {
+    //screens
+    BACKGROUND, FINAL_BACKGROUND, TEXT, MODE_MSG, FINAL_MSG,
+    //question screen
+    QUESTION_BOX, QUESTION_TEXT, IMAGE_PLACEHOLDER, ANS_BOX,
+    ANS_ROW, ANS_ROW_HOVER, ANS_LETTER_BOX, ANS_LETTER_BOX_HOVER, ANS_TEXT, ANS_TEXT_HOVER,
+    //pop ups
+    POPUP_CORRECT, POPUP_INCORRECT, POPUP_RESET, CORRECT_ANS_MSG,
+    //buttons
+    BTN_TEXT, BTN_DISABLED, BTN_MODE, BTN_MODE_HOVER, BTN_START, BTN_START_HOVER, BTN_RESET, BTN_RESET_HOVER,
+    BTN_CANCEL, BTN_CANCEL_HOVER, BTN_CONFIRM, BTN_CONFIRM_HOVER;
+  }
+
+  /**
+   * The purple theme the game was designed with.
+   */
+  public final static Theme DEFAULT = new Theme("default", new int[] {
+      Colors.PURPLE, Colors.PURPLE_DARKEST, Colors.WHITE, Colors.PURPLE_LIGHTER, Colors.PURPLE_LIGHTEST,
+      Colors.PURPLE_LIGHTER, Colors.PURPLE_DARKEST, Colors.PURPLE_LIGHTEST, Colors.WHITE,
+      Colors.PURPLE_LIGHTEST, Colors.PURPLE_LIGHTESTHOVER, Colors.PURPLE_LIGHTER, Colors.PURPLE_LIGHTERHOVER,
+      Colors.PURPLE_DARKEST, Colors.PURPLE,
+      Colors.GREEN, Colors.RED, Colors.BRICK, Colors.PINK,
+      Colors.WHITE, Colors.GREY, Colors.PURPLE_DARKER, Colors.PURPLE_DARKERHOVER,
+      Colors.PURPLE_DARKEST, Colors.PURPLE_DARKESTHOVER, Colors.BRICK, Colors.BRICKHOVER,
+      Colors.BRICKLIGHTER, Colors.BRICKLIGHTERHOVER, Colors.BRICKDARKER, Colors.BRICKDARKERHOVER});
+
+  /**
+   * A high contrast theme: light text on black screens, with the question and answer boxes kept light.
+   */
+  public final static Theme HIGH_CONTRAST = DEFAULT.withName("high contrast")
+      .withColor(Role.BACKGROUND, Colors.BLACK)
+      .withColor(Role.FINAL_BACKGROUND, Colors.BLACK)
+      .withColor(Role.MODE_MSG, Colors.WHITE)
+      .withColor(Role.FINAL_MSG, Colors.WHITE)
+      .withColor(Role.QUESTION_BOX, Colors.WHITE)
+      .withColor(Role.QUESTION_TEXT, Colors.BLACK)
+      .withColor(Role.ANS_TEXT, Colors.BLACK)
+      .withColor(Role.ANS_LETTER_BOX, Colors.PURPLE_DARKEST)
+      .withColor(Role.ANS_LETTER_BOX_HOVER, Colors.PURPLE)
+      .withColor(Role.BTN_MODE, Colors.PURPLE)
+      .withColor(Role.BTN_MODE_HOVER, Colors.PURPLE_DARKERHOVER)
+      .withColor(Role.BTN_START, Colors.PURPLE)
+      .withColor(Role.BTN_START_HOVER, Colors.PURPLE_DARKERHOVER);
+
+  private final String name;
+  //the packed color of each role, indexed by the role's ordinal
+  private final int[] colors;
+
+  private Theme(String name, int[] colors) {
+    if (colors.length != Role.values().length) {
+      throw new IllegalArgumentException("a theme needs " + Role.values().length + " colors, not " + colors.length);
+    }
+    this.name = name;
+    this.colors = colors;
+  }
+
+  /**
+   * Returns a copy of this theme, with the given color for the given role.
+   * @param role the role
+   * @param color the packed color (see Colors)
+   * @return the new theme
+   */
+  public Theme withColor(Role role, int color) {
+    int[] newColors = Arrays.copyOf(this.colors, this.colors.length);
+    newColors[role.ordinal()] = color;
+    return new Theme(this.name, newColors);
+  }
+
+  /**
+   * Returns a copy of this theme, with the given name.
+   * @param name the name of the new theme
+   * @return the new theme
+   */
+  public Theme withName(String name) {
+    return new Theme(name, this.colors);
+  }
+
+  /**
+   * Returns the packed color of the given role.
+   * @param role the role
+   * @return the packed color, to be passed to fill(), stroke() or background() as it is
+   */
+  public int get(Role role) {
+    return this.colors[role.ordinal()];
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  @Override
+  public String toString() {
+    return this.name;
+  }
+}
@@ -0,0 +1,51 @@
+package server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates executors that run every task on its own thread, for blocking socket work.
+ * On a JDK with virtual threads (21+), every task runs on a new virtual thread, so thousands of connections
+ * only cost a few kilobytes each. On older JDKs, it falls back to a cached pool of daemon platform threads.
+ */
+final class ThreadPerTask {
+
+  private ThreadPerTask() {
+    //only static members
+  }
+
+  /**
+   * Returns a new executor that starts a thread per task.
+   * @param name the name of the platform threads, if virtual threads are not available
+   * @return the executor
+   */
+  static ExecutorService newExecutor(String name) {
+    try {
+      //looked up by reflection, so that this also compiles and runs on JDKs without virtual threads
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    }
+    catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, name);
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  /**
+   * Returns whether the executors run their tasks on virtual threads.
+   * @return true if virtual threads are available
+   */
+  static boolean isVirtual() {
+    try {
+      Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    }
+    catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+}
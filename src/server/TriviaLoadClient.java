@@ -0,0 +1,165 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Simulates many players of a TriviaServer over loopback, and reports the answer latency and the throughput.
+ * Every player connects, chooses the text-only mode, and plays the given number of whole games
+ * (QUESTION, ANSWER with a random answer option, NEXT, until the final screen, then RESET), on its own thread.
+ * Only the round trip of the ANSWER commands is measured.
+ *
+ * Without a port, a server is started in the same JVM on the text-only file of src/resources.
+ * Usage: TriviaLoadClient [numOfPlayers (default 1000)] [numOfGames per player (default 5)] [port]
+ */
+public class TriviaLoadClient {
+
+  /**
+   * Represents a connection of one simulated player.
+   */
+  private static class Player implements AutoCloseable {
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+
+    private Player(int port) throws IOException {
+      this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+      this.socket.setTcpNoDelay(true);
+      this.in = new BufferedReader(new InputStreamReader(this.socket.getInputStream(), StandardCharsets.UTF_8));
+      this.out = new BufferedWriter(new OutputStreamWriter(this.socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends the given command, and returns the response line.
+     * @throws IOException if the server disconnected, or answered with an error
+     */
+    private String send(String command) throws IOException {
+      this.out.write(command);
+      this.out.write('\n');
+      this.out.flush();
+      String response = this.in.readLine();
+      if (response == null || response.startsWith("ERROR")) {
+        throw new IOException(command + ": " + response);
+      }
+      return response;
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.socket.close();
+    }
+  }
+
+  private TriviaLoadClient() {
+    //only static members
+  }
+
+  // Driver code
+  public static void main(String[] args) throws Exception {
+    int numOfPlayers = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    int numOfGames = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+    TriviaServer embedded = null;
+    int port;
+    if (args.length > 2) {
+      port = Integer.parseInt(args[2]);
+    }
+    else {
+      embedded = new TriviaServer(TriviaServer.loadSessions(new File("src/resources/dataSet02_textOnly.xml")), 0);
+      port = embedded.getPort();
+    }
+
+    //all players connect first, then start playing at the same time
+    ExecutorService players = ThreadPerTask.newExecutor("trivia-player");
+    CountDownLatch go = new CountDownLatch(1);
+    List<Future<long[]>> results = new ArrayList<>();
+    for (int p = 0; p < numOfPlayers; p++) {
+      long seed = p;
+      results.add(players.submit(() -> play(port, numOfGames, new Random(seed), go)));
+    }
+    long start = System.nanoTime();
+    go.countDown();
+    List<long[]> latencies = new ArrayList<>();
+    int failed = 0;
+    for (Future<long[]> result : results) {
+      try {
+        latencies.add(result.get());
+      }
+      catch (Exception e) {
+        failed++;
+        if (failed == 1) {
+          System.out.println("ERROR! a player failed: " + e.getCause());
+        }
+      }
+    }
+    long nanos = System.nanoTime() - start;
+    players.shutdown();
+    if (embedded != null) {
+      embedded.close();
+    }
+
+    //merge the latencies of all players
+    long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+    System.out.println(numOfPlayers + " players (" + failed + " failed), " + numOfGames + " games each, "
+        + (ThreadPerTask.isVirtual() ? "virtual" : "platform") + " threads");
+    if (all.length == 0) {
+      return;
+    }
+    System.out.printf("answers: %d in %.1f ms, %.0f answers/s%n", all.length, nanos / 1e6, all.length / (nanos / 1e9));
+    System.out.printf("answer latency: p50 %.1f us, p99 %.1f us, max %.1f us%n",
+        percentile(all, 50) / 1e3, percentile(all, 99) / 1e3, all[all.length - 1] / 1e3);
+  }
+
+  /**
+   * Plays the given number of games over a new connection.
+   * @return the round trip time of every ANSWER command, in nanoseconds
+   */
+  private static long[] play(int port, int numOfGames, Random random, CountDownLatch go) throws Exception {
+    try (Player player = new Player(port)) {
+      go.await();
+      long[] latencies = new long[64];
+      int count = 0;
+      for (int g = 0; g < numOfGames; g++) {
+        player.send("MODE SIMPLE");
+        player.send("START");
+        String state;
+        do {
+          //QUESTION id, question, then one field per answer option
+          int numOfAnsOpts = player.send("QUESTION").split("\t").length - 2;
+          long sent = System.nanoTime();
+          player.send("ANSWER " + random.nextInt(numOfAnsOpts));
+          if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+          }
+          latencies[count++] = System.nanoTime() - sent;
+          state = player.send("NEXT");
+        } while (!state.equals("STATE FINAL"));
+        player.send("RESET");
+      }
+      player.send("QUIT");
+      return Arrays.copyOf(latencies, count);
+    }
+  }
+
+  /**
+   * Returns the given percentile of the given sorted values (nearest rank).
+   */
+  private static long percentile(long[] sorted, int percent) {
+    int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+    return sorted[Math.max(0, rank - 1)];
+  }
+}
@@ -0,0 +1,247 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+
+import fileReader.SimpleXmlFileReader;
+import fileReader.VisualXmlFileReader;
+import model.ArrayQuestionBank;
+import model.GameEngine;
+import model.GameSessions;
+import model.GameState;
+import model.Leaderboard;
+import model.Model.ModelMode;
+import model.QuestionSet;
+
+/**
+ * Represents a local Trivia game server, on the loopback interface.
+ * Every connection plays its own game session, on the question bank shared by all sessions (see GameSessions),
+ * and is served on its own thread (a virtual thread when the JDK has them, see ThreadPerTask).
+ *
+ * The protocol is line based (UTF-8): the client sends one command per line, and the server answers each one
+ * with exactly one line. The commands follow the game flow of GameEngine:
+ *   MODE SIMPLE|VISUAL   OK
+ *   START                OK
+ *   QUESTION             QUESTION id(tab)question(tab)answer A(tab)answer B... (on the question screen only)
+ *   ANSWER index         CORRECT score, or INCORRECT correctIndex score
+ *   NEXT                 STATE state (QUESTION_SCREEN, or FINAL after the last question)
+ *   SCORE                SCORE score
+ *   LEADERBOARD          LEADERBOARD playerId:score playerId:score... (best first, over all sessions)
+ *   STATS                STATS correct/attempts of the current question set, over all sessions
+ *   STATE                STATE state
+ *   RESET                OK (back to choosing the mode)
+ *   QUIT                 BYE (and the connection is closed)
+ * A command that is unknown, or not allowed in the current state, is answered with ERROR message.
+ */
+public class TriviaServer implements Closeable {
+  public final static int DEFAULT_PORT = 4444;
+  private final static int BACKLOG = 4096;
+
+  private final GameSessions sessions;
+  private final ServerSocket serverSocket;
+  private final ExecutorService connections;
+  private final Thread acceptor;
+
+  /**
+   * Constructs a TriviaServer on the given port of the loopback interface, and starts accepting connections.
+   * @param sessions the sessions, playing on the shared question bank
+   * @param port the port to listen on, or 0 for any free port
+   * @throws IOException if the port cannot be bound
+   */
+  public TriviaServer(GameSessions sessions, int port) throws IOException {
+    this.sessions = sessions;
+    this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+    this.connections = ThreadPerTask.newExecutor("trivia-connection");
+    //not a daemon, so that the server keeps running until it is closed
+    this.acceptor = new Thread(this::acceptConnections, "trivia-acceptor");
+    this.acceptor.start();
+  }
+
+  /**
+   * Accepts connections until the server is closed, handing each one to its own thread.
+   */
+  private void acceptConnections() {
+    while (!this.serverSocket.isClosed()) {
+      try {
+        Socket socket = this.serverSocket.accept();
+        this.connections.execute(() -> serve(socket));
+      }
+      catch (SocketException e) {
+        //the server socket was closed
+      }
+      catch (IOException e) {
+        System.out.println("ERROR! could not accept a connection: " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Plays a game session over the given connection, until the client quits or disconnects.
+   * @param socket the connection
+   */
+  private void serve(Socket socket) {
+    long sessionId = this.sessions.open();
+    GameEngine engine = this.sessions.get(sessionId);
+    try (Socket s = socket;
+        BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+        Writer out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+      s.setTcpNoDelay(true);
+      String line;
+      while ((line = in.readLine()) != null) {
+        String response = respond(this.sessions, engine, line.trim());
+        out.write(response);
+        out.write('\n');
+        out.flush();
+        if (response.equals("BYE")) {
+          break;
+        }
+      }
+    }
+    catch (IOException e) {
+      //the client disconnected
+    }
+    finally {
+      this.sessions.close(sessionId);
+    }
+  }
+
+  /**
+   * Takes the action of the given command line on the given session, and returns the response line.
+   * @param sessions all sessions, for the shared statistics
+   * @param engine the game session
+   * @param command the command line, without the line break
+   * @return the response line, without the line break
+   */
+  static String respond(GameSessions sessions, GameEngine engine, String command) {
+    int space = command.indexOf(' ');
+    String name = space < 0 ? command : command.substring(0, space);
+    String arg = space < 0 ? "" : command.substring(space + 1).trim();
+    try {
+      switch (name) {
+        case "MODE":
+          engine.chooseMode(ModelMode.valueOf(arg));
+          return "OK";
+        case "START":
+          engine.start();
+          return "OK";
+        case "QUESTION":
+          //the question is only shown on the question screen
+          if (engine.getState() != GameState.QUESTION_SCREEN) {
+            return "ERROR QUESTION is not allowed in state " + engine.getState();
+          }
+          if (engine.getCurrentQSet() == null) {
+            return "ERROR there are no question sets";
+          }
+          return questionLine(engine.getCurrentQSet());
+        case "ANSWER":
+          if (engine.answer(Integer.parseInt(arg))) {
+            return "CORRECT " + engine.getScore();
+          }
+          return "INCORRECT " + engine.getCurrentQSet().getCorrectAnsOptIdx() + " " + engine.getScore();
+        case "NEXT":
+          engine.next();
+          return "STATE " + engine.getState();
+        case "SCORE":
+          return "SCORE " + engine.getScore();
+        case "LEADERBOARD":
+          StringBuilder sb = new StringBuilder("LEADERBOARD");
+          for (Leaderboard.Entry entry : sessions.getLeaderboard().snapshot()) {
+            sb.append(' ').append(entry);
+          }
+          return sb.toString();
+        case "STATS":
+          int qSetIdx = engine.getCurrentQuestionSetIdx();
+          return "STATS " + sessions.getStats().getCorrect(qSetIdx) + "/" + sessions.getStats().getAttempts(qSetIdx);
+        case "STATE":
+          return "STATE " + engine.getState();
+        case "RESET":
+          engine.reset();
+          return "OK";
+        case "QUIT":
+          return "BYE";
+        default:
+          return "ERROR unknown command: " + name;
+      }
+    }
+    catch (IllegalStateException | IllegalArgumentException e) {
+      //also covers an unknown mode, or an answer index that is not a number
+      return "ERROR " + e.getMessage();
+    }
+  }
+
+  /**
+   * Returns the QUESTION response line of the given question set.
+   */
+  private static String questionLine(QuestionSet qSet) {
+    StringBuilder sb = new StringBuilder("QUESTION ");
+    sb.append(qSet.getId()).append('\t').append(oneLine(qSet.getQString()));
+    for (int i = 0; i < qSet.getNumOfAnsOpts(); i++) {
+      sb.append('\t').append(oneLine(qSet.getAnsOptAt(i).getAnsOptString()));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Replaces the tabs and line breaks of the given string, so that it fits in a field of a response line.
+   */
+  private static String oneLine(String str) {
+    return str.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+  }
+
+  /**
+   * Returns the port the server listens on.
+   * @return the port
+   */
+  public int getPort() {
+    return this.serverSocket.getLocalPort();
+  }
+
+  /**
+   * Stops accepting connections. The open ones are served until their clients quit or disconnect.
+   */
+  @Override
+  public void close() throws IOException {
+    this.serverSocket.close();
+    this.connections.shutdown();
+  }
+
+  /**
+   * Loads the given question xml file once into a question bank, and returns the sessions playing on it.
+   * Files whose name contains "textOnly" are read without images, like in the Processing sketch.
+   * @param xmlFile the question xml file
+   * @return the sessions, without any session open yet
+   */
+  public static GameSessions loadSessions(File xmlFile) {
+    boolean visual = !xmlFile.getName().contains("textOnly");
+    ArrayQuestionBank bank = ArrayQuestionBank.read(visual ? new VisualXmlFileReader(xmlFile)
+        : new SimpleXmlFileReader(xmlFile));
+    return new GameSessions(bank, visual);
+  }
+
+  // Driver code
+  public static void main(String[] args) throws IOException {
+    File xmlFile = new File(args.length > 0 ? args[0] : "src/resources/dataSet02_textOnly.xml");
+    int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+    GameSessions sessions = loadSessions(xmlFile);
+    if (sessions.getQuestionBank().size() == 0) {
+      System.out.println("ERROR! " + xmlFile + " has no question sets");
+      return;
+    }
+    TriviaServer server = new TriviaServer(sessions, port);
+    System.out.println("serving " + sessions.getQuestionBank().size() + " question sets of " + xmlFile
+        + " on " + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort()
+        + (ThreadPerTask.isVirtual() ? " (virtual threads)" : " (platform threads)"));
+  }
+}
@@ -0,0 +1,141 @@
+package view;
+
+import java.awt.Font;
+import java.util.BitSet;
+
+import processing.core.PFont;
+import processing.core.PGraphics;
+
+/**
+ * Represents the fonts of the canvas: one PFont per text size, created once at its exact pixel size,
+ * with the glyphs of every character that can be shown (see Glyphs) rendered when it is created.
+ * Switching between text sizes is then a textFont() call, instead of a textSize() call that scales
+ * the glyphs of the current font to the new size.
+ *
+ * The fonts are created without an applet, so that they can be created on a loading thread,
+ * and handed over to the render thread once they are complete.
+ * A disabled FontManager only calls textSize(), so that the draw code can call it unconditionally,
+ * and the two can be compared (e.g. with the FrameProfiler).
+ */
+public class FontManager {
+  //the font Processing uses when no font was set
+  public final static String DEFAULT_FONT_NAME = "Lucida Sans";
+
+  /**
+   * Represents the set of characters whose glyphs are rendered when the fonts are created:
+   * the printable ASCII characters (used by the screens themselves), and the characters of the given texts
+   * (e.g. the question and answer strings of the loaded bank).
+   */
+  public final static class Glyphs {
+    private final BitSet chars;
+
+    /**
+     * Constructs a set of the printable ASCII characters.
+     */
+    public Glyphs() {
+      this.chars = new BitSet();
+      this.chars.set(' ', '~' + 1);
+    }
+
+    /**
+     * Adds the characters of the given text to this set.
+     * @param text the text
+     * @return this set
+     */
+    public Glyphs add(String text) {
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        //line breaks are not drawn
+        if (!Character.isISOControl(c)) {
+          this.chars.set(c);
+        }
+      }
+      return this;
+    }
+
+    /**
+     * Returns the characters of this set, in ascending order.
+     * @return the characters
+     */
+    public char[] toArray() {
+      char[] charset = new char[this.chars.cardinality()];
+      int i = 0;
+      for (int c = this.chars.nextSetBit(0); c >= 0; c = this.chars.nextSetBit(c + 1)) {
+        charset[i++] = (char) c;
+      }
+      return charset;
+    }
+
+    public int size() {
+      return this.chars.cardinality();
+    }
+  }
+
+  private final boolean enabled;
+  private final int[] sizes;
+  private final PFont[] fonts;
+  private final int numOfGlyphs;
+
+  /**
+   * Constructs a FontManager, creating a font of the given name for each of the given text sizes
+   * (nothing is created if it is disabled).
+   * @param enabled whether to switch fonts with textFont(), instead of textSize()
+   * @param fontName the name of the font (e.g. DEFAULT_FONT_NAME)
+   * @param sizes the text sizes, in pixels
+   * @param glyphs the characters whose glyphs are rendered up front
+   */
+  public FontManager(boolean enabled, String fontName, int[] sizes, Glyphs glyphs) {
+    this.enabled = enabled;
+    this.sizes = sizes.clone();
+    this.fonts = new PFont[sizes.length];
+    this.numOfGlyphs = glyphs.size();
+    if (enabled) {
+      char[] charset = glyphs.toArray();
+      for (int i = 0; i < sizes.length; i++) {
+        this.fonts[i] = new PFont(new Font(fontName, Font.PLAIN, sizes[i]), true, charset);
+      }
+    }
+  }
+
+  /**
+   * Switches the given graphics to the given text size: to the font of that size,
+   * or with textSize() if this FontManager is disabled or has no font of that size.
+   * @param graphics the graphics to draw text onto (e.g. the canvas, or an offscreen layer)
+   * @param size the text size, in pixels
+   */
+  public void use(PGraphics graphics, int size) {
+    PFont font = get(size);
+    if (font != null) {
+      graphics.textFont(font);
+    }
+    else {
+      graphics.textSize(size);
+    }
+  }
+
+  /**
+   * Returns the font of the given text size.
+   * @param size the text size, in pixels
+   * @return the font, or null if this FontManager is disabled or has no font of that size
+   */
+  public PFont get(int size) {
+    for (int i = 0; i < this.sizes.length; i++) {
+      if (this.sizes[i] == size) {
+        return this.fonts[i];
+      }
+    }
+    return null;
+  }
+
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+   * Returns the number of characters whose glyphs were rendered up front, per font.
+   * @return the number of glyphs
+   */
+  public int getNumOfGlyphs() {
+    return this.numOfGlyphs;
+  }
+}
@@ -0,0 +1,310 @@
+package view;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+
+/**
+ * Represents a frame profiler for the draw loop.
+ * Times every frame and the stages of it (e.g. drawing the answer options), and counts the images loaded
+ * and the bytes allocated by the render thread during each frame.
+ * The last frames are kept in a rolling window, from which the percentiles (p50, p95, p99) are computed
+ * when the results are printed to the console or written to a CSV file.
+ *
+ * A disabled profiler does nothing, so that the draw loop can call it unconditionally.
+ * Must only be used from the render thread.
+ */
+public class FrameProfiler {
+  /**
+   * Represents the timed stages of a frame.
+   * A stage can be timed several times in the same frame (e.g. once per button), and the times are added up.
+   */
+  public enum Stage {
+    SECTION_BACKGROUNDS, QUESTION_STRING, Q_IMAGE_SQUARE, ANS_OPTS, POPUPS, BUTTONS;
+  }
+
+  //the default number of frames kept (10 seconds at 60 frames per second)
+  public final static int DEFAULT_WINDOW_SIZE = 600;
+  //a frame that takes longer than this misses a refresh at 60 frames per second
+  public final static long FRAME_BUDGET_NANOS = 1_000_000_000L / 60;
+
+  private final boolean enabled;
+  private final IntSupplier imageLoadCounter;
+  private final ThreadMXBean threads;
+  private final boolean allocationsCounted;
+  private final int windowSize;
+
+  //the rolling window (ring buffers indexed by frame number modulo the window size)
+  private final String[] states;
+  private final long[] frameNanos;
+  private final long[][] stageNanos;
+  private final int[] imageLoads;
+  private final long[] allocatedBytes;
+  private long numOfFrames;
+  private long numOfSlowFrames;
+
+  //the frame being recorded
+  private boolean inFrame;
+  private String currentState;
+  private long frameStart;
+  private int imageLoadsAtStart;
+  private long allocatedAtStart;
+  private final long[] currentStageNanos;
+  private final long[] stageStarts;
+
+  /**
+   * Constructs a FrameProfiler with the default window size.
+   * @param enabled whether to profile at all
+   * @param imageLoadCounter returns the number of images loaded so far (e.g. the misses of the ImageCache)
+   */
+  public FrameProfiler(boolean enabled, IntSupplier imageLoadCounter) {
+    this(enabled, imageLoadCounter, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * Constructs a FrameProfiler.
+   * @param enabled whether to profile at all
+   * @param imageLoadCounter returns the number of images loaded so far (e.g. the misses of the ImageCache)
+   * @param windowSize the number of most recent frames kept
+   */
+  public FrameProfiler(boolean enabled, IntSupplier imageLoadCounter, int windowSize) {
+    this.enabled = enabled;
+    this.imageLoadCounter = imageLoadCounter;
+    this.windowSize = windowSize;
+    this.threads = ManagementFactory.getThreadMXBean();
+    this.allocationsCounted = enabled && allocatedBytesSupported(this.threads);
+    int size = enabled ? windowSize : 0;
+    int numOfStages = Stage.values().length;
+    this.states = new String[size];
+    this.frameNanos = new long[size];
+    this.stageNanos = new long[numOfStages][size];
+    this.imageLoads = new int[size];
+    this.allocatedBytes = new long[size];
+    this.currentStageNanos = new long[numOfStages];
+    this.stageStarts = new long[numOfStages];
+  }
+
+  /**
+   * Returns whether the JVM can count the bytes allocated by a thread (HotSpot and its derivatives can).
+   */
+  private static boolean allocatedBytesSupported(ThreadMXBean threads) {
+    if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+      return false;
+    }
+    com.sun.management.ThreadMXBean hotspotThreads = (com.sun.management.ThreadMXBean) threads;
+    try {
+      if (!hotspotThreads.isThreadAllocatedMemoryEnabled()) {
+        hotspotThreads.setThreadAllocatedMemoryEnabled(true);
+      }
+      return hotspotThreads.isThreadAllocatedMemorySupported();
+    }
+    catch (UnsupportedOperationException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns the number of bytes allocated by the current thread so far.
+   */
+  private long allocatedBytesSoFar() {
+    if (!this.allocationsCounted) {
+      return 0;
+    }
+    return ((com.sun.management.ThreadMXBean) this.threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Starts recording a frame. Must be called at the very start of draw().
+   * @param state the name of the game state the frame is drawn in
+   */
+  public void beginFrame(String state) {
+    if (!this.enabled) {
+      return;
+    }
+    this.inFrame = true;
+    this.currentState = state;
+    Arrays.fill(this.currentStageNanos, 0);
+    this.imageLoadsAtStart = this.imageLoadCounter.getAsInt();
+    this.allocatedAtStart = allocatedBytesSoFar();
+    this.frameStart = System.nanoTime();
+  }
+
+  /**
+   * Starts timing the given stage of the current frame.
+   * @param stage the stage
+   */
+  public void begin(Stage stage) {
+    if (this.enabled) {
+      this.stageStarts[stage.ordinal()] = System.nanoTime();
+    }
+  }
+
+  /**
+   * Stops timing the given stage of the current frame, adding the time since begin() to it.
+   * @param stage the stage
+   */
+  public void end(Stage stage) {
+    if (this.enabled) {
+      this.currentStageNanos[stage.ordinal()] += System.nanoTime() - this.stageStarts[stage.ordinal()];
+    }
+  }
+
+  /**
+   * Stops recording the current frame, and adds it to the rolling window.
+   * Must be called at the very end of draw().
+   */
+  public void endFrame() {
+    if (!this.enabled || !this.inFrame) {
+      return;
+    }
+    long nanos = System.nanoTime() - this.frameStart;
+    int slot = (int) (this.numOfFrames % this.windowSize);
+    this.states[slot] = this.currentState;
+    this.frameNanos[slot] = nanos;
+    for (int s = 0; s < this.currentStageNanos.length; s++) {
+      this.stageNanos[s][slot] = this.currentStageNanos[s];
+    }
+    this.imageLoads[slot] = this.imageLoadCounter.getAsInt() - this.imageLoadsAtStart;
+    this.allocatedBytes[slot] = allocatedBytesSoFar() - this.allocatedAtStart;
+    this.numOfFrames++;
+    if (nanos > FRAME_BUDGET_NANOS) {
+      this.numOfSlowFrames++;
+    }
+    this.inFrame = false;
+  }
+
+  /**
+   * Returns the number of frames recorded so far (including the ones no longer in the window).
+   * @return the number of frames
+   */
+  public long getNumOfFrames() {
+    return this.numOfFrames;
+  }
+
+  /**
+   * Removes every recorded frame, e.g. to profile the next screen on its own.
+   */
+  public void reset() {
+    this.numOfFrames = 0;
+    this.numOfSlowFrames = 0;
+    this.inFrame = false;
+  }
+
+  /**
+   * Returns the given percentile of the frame times in the rolling window.
+   * @param percent the percentile (e.g. 50 for the median)
+   * @return the frame time, in nanoseconds
+   */
+  public long getFramePercentileNanos(int percent) {
+    return percentile(this.frameNanos, framesInWindow(), percent);
+  }
+
+  /**
+   * Returns the given percentile of the times of the given stage in the rolling window.
+   * @param stage the stage
+   * @param percent the percentile (e.g. 50 for the median)
+   * @return the stage time, in nanoseconds
+   */
+  public long getStagePercentileNanos(Stage stage, int percent) {
+    return percentile(this.stageNanos[stage.ordinal()], framesInWindow(), percent);
+  }
+
+  /**
+   * Returns the given percentile of the bytes allocated per frame in the rolling window.
+   * @param percent the percentile (e.g. 50 for the median)
+   * @return the allocated bytes, or -1 if the JVM cannot count them
+   */
+  public long getAllocatedBytesPercentile(int percent) {
+    return this.allocationsCounted ? percentile(this.allocatedBytes, framesInWindow(), percent) : -1;
+  }
+
+  /**
+   * Returns the number of frames in the rolling window.
+   */
+  private int framesInWindow() {
+    return (int) Math.min(this.numOfFrames, this.windowSize);
+  }
+
+  /**
+   * Returns the given percentile (nearest rank) of the first values of the given ring buffer.
+   */
+  private static long percentile(long[] values, int count, int percent) {
+    if (count == 0) {
+      return 0;
+    }
+    long[] sorted = Arrays.copyOf(values, count);
+    Arrays.sort(sorted);
+    int rank = (int) Math.ceil(percent / 100.0 * count);
+    return sorted[Math.max(0, rank - 1)];
+  }
+
+  /**
+   * Returns the p50, p95 and p99 of the first values of the given ring buffer, in milliseconds.
+   */
+  private static String percentilesMillis(long[] nanos, int count) {
+    return String.format("p50 %.3f ms, p95 %.3f ms, p99 %.3f ms",
+        percentile(nanos, count, 50) / 1e6, percentile(nanos, count, 95) / 1e6, percentile(nanos, count, 99) / 1e6);
+  }
+
+  /**
+   * Prints the percentiles of the frames in the rolling window to the console, in a human readable form.
+   */
+  public void consolePrintStats() {
+    if (!this.enabled) {
+      return;
+    }
+    int count = framesInWindow();
+    System.out.println("frame profile: " + this.numOfFrames + " frames, " + this.numOfSlowFrames
+        + " over the " + (FRAME_BUDGET_NANOS / 1000) + " us budget, last " + count + " frames:");
+    System.out.println("  frame: " + percentilesMillis(this.frameNanos, count));
+    for (Stage stage : Stage.values()) {
+      System.out.println("  " + stage + ": " + percentilesMillis(this.stageNanos[stage.ordinal()], count));
+    }
+    long[] loads = new long[count];
+    for (int i = 0; i < count; i++) {
+      loads[i] = this.imageLoads[i];
+    }
+    System.out.println("  image loads per frame: p50 " + percentile(loads, count, 50)
+        + ", p99 " + percentile(loads, count, 99) + ", max " + percentile(loads, count, 100));
+    if (this.allocationsCounted) {
+      System.out.println("  bytes allocated per frame: p50 " + percentile(this.allocatedBytes, count, 50)
+          + ", p99 " + percentile(this.allocatedBytes, count, 99));
+    }
+  }
+
+  /**
+   * Writes the frames in the rolling window to the given CSV file, one row per frame, oldest first.
+   * @param file the CSV file to write
+   */
+  public void writeCsv(File file) {
+    if (!this.enabled) {
+      return;
+    }
+    try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+      StringBuilder header = new StringBuilder("frame,state,frameNanos");
+      for (Stage stage : Stage.values()) {
+        header.append(',').append(stage).append("_nanos");
+      }
+      header.append(",imageLoads,allocatedBytes");
+      out.println(header);
+      for (long frame = this.numOfFrames - framesInWindow(); frame < this.numOfFrames; frame++) {
+        int slot = (int) (frame % this.windowSize);
+        StringBuilder row = new StringBuilder();
+        row.append(frame).append(',').append(this.states[slot]).append(',').append(this.frameNanos[slot]);
+        for (Stage stage : Stage.values()) {
+          row.append(',').append(this.stageNanos[stage.ordinal()][slot]);
+        }
+        row.append(',').append(this.imageLoads[slot]).append(',').append(this.allocationsCounted ? this.allocatedBytes[slot] : -1);
+        out.println(row);
+      }
+      System.out.println("frame profile written to " + file);
+    }
+    catch (IOException e) {
+      System.out.println("ERROR! frame profile could not be written: " + e.getMessage());
+    }
+  }
+}
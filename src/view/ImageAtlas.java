@@ -0,0 +1,211 @@
+package view;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import processing.core.PApplet;
+import processing.core.PConstants;
+import processing.core.PImage;
+
+/**
+ * Represents a texture atlas of pre-scaled images. Each image is resized once to the exact size it is drawn at,
+ * and copied into one of a few large page images. A lookup table keeps the sub-rectangle (region) of each image,
+ * so drawing an image only copies an already sized region instead of rescaling the full resolution image every frame.
+ *
+ * Regions are packed row by row ("shelves") from the top left corner of each page.
+ * Once all the pages are full, add() returns null and the caller should draw the image the usual way.
+ * An ImageAtlas is not thread-safe: one built on a loading thread must only be handed over once it is complete.
+ */
+public class ImageAtlas {
+  public final static int DEFAULT_PAGE_SIZE = 2048;
+  public final static int DEFAULT_MAX_PAGES = 4;
+  //empty pixels left between regions, so that neighbouring images never bleed into each other
+  private final static int PADDING = 1;
+
+  /**
+   * Represents the sub-rectangle of a page that contains one pre-scaled image.
+   */
+  public static class Region {
+    public final int page;
+    public final int x;
+    public final int y;
+    public final int width;
+    public final int height;
+
+    private Region(int page, int x, int y, int width, int height) {
+      this.page = page;
+      this.x = x;
+      this.y = y;
+      this.width = width;
+      this.height = height;
+    }
+  }
+
+  private final PApplet applet;
+  private final int pageSize;
+  private final int maxPages;
+  private final List<PImage> pages;
+  private final Map<String, Region> regions;
+  //the position of the next region on the current page
+  private int shelfX;
+  private int shelfY;
+  private int shelfHeight;
+  private boolean full;
+
+  /**
+   * Constructs an ImageAtlas with the default page size and number of pages.
+   * @param applet the applet used to create the page images
+   */
+  public ImageAtlas(PApplet applet) {
+    this(applet, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+  }
+
+  /**
+   * Constructs an ImageAtlas with the given page size and maximum number of pages.
+   * @param applet the applet used to create the page images
+   * @param pageSize the width and height of each page, in pixels
+   * @param maxPages the maximum number of pages to create
+   * @throws IllegalArgumentException if the page size or the maximum number of pages is not positive
+   */
+  public ImageAtlas(PApplet applet, int pageSize, int maxPages) {
+    if (pageSize <= 0 || maxPages <= 0) {
+      throw new IllegalArgumentException("page size and number of pages must be positive");
+    }
+    this.applet = applet;
+    this.pageSize = pageSize;
+    this.maxPages = maxPages;
+    this.pages = new ArrayList<>();
+    this.regions = new HashMap<>();
+    this.full = false;
+  }
+
+  /**
+   * Returns the key of the region for the image at the given path, drawn at the given size.
+   * @param path the resolved path of the image file
+   * @param width the width the image is drawn at
+   * @param height the height the image is drawn at
+   * @return the key of the region
+   */
+  public static String keyOf(String path, int width, int height) {
+    return path + "@" + width + "x" + height;
+  }
+
+  /**
+   * Returns the region of the given key, or null if it has not been added to the atlas.
+   * @param key the key of the region (see keyOf())
+   * @return the region, or null
+   */
+  public Region get(String key) {
+    return this.regions.get(key);
+  }
+
+  /**
+   * Resizes a copy of the given image to the given size, and packs it into the atlas.
+   * The source image is not modified, and does not need to be kept after this call.
+   * @param key the key of the region (see keyOf())
+   * @param source the full resolution image
+   * @param width the width to resize the image to
+   * @param height the height to resize the image to
+   * @return the region of the packed image, or null if the atlas is full
+   */
+  public Region add(String key, PImage source, int width, int height) {
+    Region existing = this.regions.get(key);
+    if (existing != null) {
+      return existing;
+    }
+    if (source == null || width <= 0 || height <= 0 || width > this.pageSize || height > this.pageSize) {
+      return null;
+    }
+    if (!this.reserve(width, height)) {
+      return null;
+    }
+    PImage scaled = source.copy();
+    scaled.resize(width, height);
+    PImage page = this.pages.get(this.pages.size() - 1);
+    page.set(this.shelfX, this.shelfY, scaled);
+
+    Region region = new Region(this.pages.size() - 1, this.shelfX, this.shelfY, width, height);
+    this.regions.put(key, region);
+    this.shelfX += width + PADDING;
+    this.shelfHeight = Math.max(this.shelfHeight, height);
+    return region;
+  }
+
+  /**
+   * Moves the packing position to a spot on the current (or a new) page where a region
+   * of the given size fits.
+   * @param width the width of the region
+   * @param height the height of the region
+   * @return true if there is room for the region, false if the atlas is full
+   */
+  private boolean reserve(int width, int height) {
+    if (this.full) {
+      return false;
+    }
+    if (this.pages.isEmpty()) {
+      return this.newPage();
+    }
+    //start a new shelf if the region does not fit at the end of the current one
+    if (this.shelfX + width > this.pageSize) {
+      this.shelfX = 0;
+      this.shelfY += this.shelfHeight + PADDING;
+      this.shelfHeight = 0;
+    }
+    //start a new page if the region does not fit below the current shelf
+    if (this.shelfY + height > this.pageSize) {
+      return this.newPage();
+    }
+    return true;
+  }
+
+  /**
+   * Creates a new empty page and moves the packing position to its top left corner.
+   * @return true if a page was created, false if the maximum number of pages has been reached
+   */
+  private boolean newPage() {
+    if (this.pages.size() >= this.maxPages) {
+      this.full = true;
+      return false;
+    }
+    this.pages.add(this.applet.createImage(this.pageSize, this.pageSize, PConstants.ARGB));
+    this.shelfX = 0;
+    this.shelfY = 0;
+    this.shelfHeight = 0;
+    return true;
+  }
+
+  /**
+   * Returns the page image at the given index.
+   * @param idx the index of the page (see Region.page)
+   * @return the page image
+   */
+  public PImage getPage(int idx) {
+    return this.pages.get(idx);
+  }
+
+  /**
+   * Returns whether all the pages of this atlas are full.
+   * @return true if no more images can be added
+   */
+  public boolean isFull() {
+    return this.full;
+  }
+
+  /**
+   * Returns the number of regions packed in this atlas.
+   * @return the number of regions
+   */
+  public int size() {
+    return this.regions.size();
+  }
+
+  /**
+   * Returns the number of pages created so far.
+   * @return the number of pages
+   */
+  public int getNumOfPages() {
+    return this.pages.size();
+  }
+}
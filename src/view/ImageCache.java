@@ -0,0 +1,201 @@
+package view;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import processing.core.PApplet;
+import processing.core.PImage;
+
+/**
+ * Represents a bounded cache of decoded images, keyed by the resolved path of the image file.
+ * Images are loaded (decoded) only once, the first time they are asked for, and are kept in memory
+ * until the total size of the cached images goes over the byte budget, at which point the least recently
+ * used images are evicted. Also keeps track of the number of hits, misses and evictions.
+ * An image that could not be loaded is remembered too (as an entry without pixels), so that a missing file
+ * is only tried, and reported, once.
+ */
+public class ImageCache {
+  //the default byte budget (64MB of decoded ARGB pixels)
+  public final static long DEFAULT_BYTE_BUDGET = 64L * 1024 * 1024;
+  //the number of bytes used by each decoded pixel (ARGB)
+  private final static int BYTES_PER_PIXEL = 4;
+  //cached in place of an image that could not be loaded
+  private final static PImage MISSING = new PImage(1, 1);
+
+  private final PApplet applet;
+  private final long byteBudget;
+  private final LinkedHashMap<String, PImage> images;
+  private long bytesInUse;
+  private int hits;
+  private int misses;
+  private int evictions;
+
+  /**
+   * Constructs an ImageCache with the default byte budget.
+   * @param applet the applet used to load (decode) the image files
+   */
+  public ImageCache(PApplet applet) {
+    this(applet, DEFAULT_BYTE_BUDGET);
+  }
+
+  /**
+   * Constructs an ImageCache with the given byte budget.
+   * @param applet the applet used to load (decode) the image files
+   * @param byteBudget the maximum number of bytes of decoded pixels to keep in the cache
+   * @throws IllegalArgumentException if the byte budget is not positive
+   */
+  public ImageCache(PApplet applet, long byteBudget) {
+    if (byteBudget <= 0) {
+      throw new IllegalArgumentException("byte budget must be positive");
+    }
+    this.applet = applet;
+    this.byteBudget = byteBudget;
+    //access-ordered, so that iterating starts from the least recently used image
+    this.images = new LinkedHashMap<>(16, 0.75f, true);
+    this.bytesInUse = 0;
+  }
+
+  /**
+   * Returns the image at the given path, loading it from the disk only if it is not in the cache yet.
+   * @param path the resolved path of the image file
+   * @return the decoded image, or null if the image could not be loaded
+   */
+  public PImage get(String path) {
+    PImage image = this.images.get(path);
+    if (image != null) {
+      this.hits++;
+      return image == MISSING ? null : image;
+    }
+    this.misses++;
+    image = this.applet.loadImage(path);
+    if (image == null) {
+      System.out.println("ERROR! image could not be loaded: " + path);
+      this.images.put(path, MISSING);
+      return null;
+    }
+    this.put(path, image);
+    return image;
+  }
+
+  /**
+   * Adds an already decoded image to the cache, evicting the least recently used images
+   * if the byte budget is exceeded. Does nothing if the path is already in the cache.
+   * @param path the resolved path of the image file
+   * @param image the decoded image
+   */
+  public void put(String path, PImage image) {
+    if (image == null || this.images.containsKey(path)) {
+      return;
+    }
+    this.images.put(path, image);
+    this.bytesInUse += sizeOf(image);
+    this.evictOverBudget(path);
+  }
+
+  /**
+   * Returns whether the image at the given path is currently in the cache
+   * (or is known not to load, so that it is not loaded again).
+   * Does not count as a hit or a miss, and does not change the LRU order.
+   * @param path the resolved path of the image file
+   * @return true if the image is in the cache
+   */
+  public boolean contains(String path) {
+    return this.images.containsKey(path);
+  }
+
+  /**
+   * Removes all images from the cache. The counters are kept.
+   */
+  public void clear() {
+    this.images.clear();
+    this.bytesInUse = 0;
+  }
+
+  /**
+   * Evicts the least recently used images until the cache is back within its byte budget.
+   * The image that was just added is never evicted, even if it is larger than the whole budget.
+   * @param justAdded the path of the image that was just added
+   */
+  private void evictOverBudget(String justAdded) {
+    Iterator<Map.Entry<String, PImage>> it = this.images.entrySet().iterator();
+    while (this.bytesInUse > this.byteBudget && it.hasNext()) {
+      Map.Entry<String, PImage> eldest = it.next();
+      if (eldest.getKey().equals(justAdded)) {
+        continue;
+      }
+      this.bytesInUse -= sizeOf(eldest.getValue());
+      it.remove();
+      this.evictions++;
+    }
+  }
+
+  /**
+   * Returns the number of bytes used by the decoded pixels of the given image.
+   * @param image the given image
+   * @return the size of the image in bytes
+   */
+  private static long sizeOf(PImage image) {
+    if (image == MISSING) {
+      return 0;
+    }
+    return (long) image.width * image.height * BYTES_PER_PIXEL;
+  }
+
+  /**
+   * Returns the number of images currently in the cache (including the ones that could not be loaded).
+   * @return the number of cached images
+   */
+  public int size() {
+    return this.images.size();
+  }
+
+  /**
+   * Returns the number of bytes of decoded pixels currently in the cache.
+   * @return the bytes in use
+   */
+  public long getBytesInUse() {
+    return this.bytesInUse;
+  }
+
+  /**
+   * Returns the byte budget of this cache.
+   * @return the byte budget
+   */
+  public long getByteBudget() {
+    return this.byteBudget;
+  }
+
+  /**
+   * Returns the number of lookups that were found in the cache.
+   * @return the number of hits
+   */
+  public int getHits() {
+    return this.hits;
+  }
+
+  /**
+   * Returns the number of lookups that had to load the image from the disk.
+   * @return the number of misses
+   */
+  public int getMisses() {
+    return this.misses;
+  }
+
+  /**
+   * Returns the number of images that were evicted to stay within the byte budget.
+   * @return the number of evictions
+   */
+  public int getEvictions() {
+    return this.evictions;
+  }
+
+  /**
+   * Prints the counters of this cache to the console, in a human readable form.
+   */
+  public void consolePrintStats() {
+    System.out.println("image cache: " + this.size() + " images, "
+        + this.bytesInUse + "/" + this.byteBudget + " bytes, "
+        + this.hits + " hits, " + this.misses + " misses, " + this.evictions + " evictions");
+  }
+}
@@ -0,0 +1,105 @@
+package view;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import processing.core.PApplet;
+import processing.core.PImage;
+
+/**
+ * Represents a background image loader, which decodes the images of upcoming questions
+ * while the player is still on the current question (or its result pop up).
+ *
+ * The decoded images are handed to the render thread through a lock-free queue: the background thread
+ * only offers finished images to the queue, and the render thread moves them into the ImageCache by calling
+ * drainInto() at the start of each frame. If an image has not been decoded in time, the render thread
+ * simply falls back to the ImageCache loading it synchronously, and the late prefetch result is dropped.
+ */
+public class ImagePrefetcher {
+  private final PApplet applet;
+  private final ExecutorService executor;
+  //decoded images waiting to be handed to the render thread
+  private final ConcurrentLinkedQueue<Map.Entry<String, PImage>> decoded;
+  //paths that have been submitted, but not yet drained by the render thread
+  private final Set<String> inFlight;
+
+  /**
+   * Constructs an ImagePrefetcher with a single background daemon thread.
+   * @param applet the applet used to load (decode) the image files
+   */
+  public ImagePrefetcher(PApplet applet) {
+    this.applet = applet;
+    this.executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "image-prefetch");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.decoded = new ConcurrentLinkedQueue<>();
+    this.inFlight = ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Submits the image at the given path to be decoded in the background.
+   * Does nothing if the image is already in the given cache, or has already been submitted.
+   * Must be called from the render thread.
+   * @param path the resolved path of the image file
+   * @param cache the cache the image will eventually be moved to
+   */
+  public void prefetch(String path, ImageCache cache) {
+    if (path == null || cache.contains(path) || !this.inFlight.add(path)) {
+      return;
+    }
+    this.executor.execute(() -> {
+      try {
+        PImage image = this.applet.loadImage(path);
+        if (image != null) {
+          //force the pixels to be decoded here, rather than on the render thread
+          image.loadPixels();
+          this.decoded.offer(Map.entry(path, image));
+          return;
+        }
+      }
+      catch (Exception e) {
+        System.out.println("ERROR! image could not be prefetched: " + path);
+      }
+      this.inFlight.remove(path);
+    });
+  }
+
+  /**
+   * Moves all the images that have finished decoding into the given cache.
+   * Must be called from the render thread, which is the only thread that touches the cache.
+   * @param cache the cache to move the decoded images into
+   * @return the number of images moved into the cache
+   */
+  public int drainInto(ImageCache cache) {
+    int count = 0;
+    Map.Entry<String, PImage> entry;
+    while ((entry = this.decoded.poll()) != null) {
+      //put() ignores images that the render thread already had to load synchronously
+      cache.put(entry.getKey(), entry.getValue());
+      this.inFlight.remove(entry.getKey());
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Returns the number of images that have been submitted but not yet drained.
+   * @return the number of pending images
+   */
+  public int getPendingCount() {
+    return this.inFlight.size();
+  }
+
+  /**
+   * Stops the background thread. Images that are still being decoded are discarded.
+   */
+  public void shutdown() {
+    this.executor.shutdownNow();
+  }
+}
@@ -0,0 +1,136 @@
+package view;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import processing.core.PApplet;
+import processing.core.PConstants;
+import processing.core.PGraphics;
+
+/**
+ * Represents a cache of pre-rendered layers: the static parts of screens (e.g. backgrounds, pop up boxes, titles),
+ * rendered once into offscreen buffers, so that drawing them again is a single image copy instead of
+ * every fill(), stroke(), rect() and text() call they are made of.
+ *
+ * Each layer covers a rectangle of the canvas, and is rendered by the given Renderer in canvas coordinates
+ * (the buffer is translated to the rectangle). What the Renderer does not paint stays transparent,
+ * so that a layer can be drawn over what is already on the canvas (e.g. a pop up over the question screen).
+ * A layer is only rendered again after being invalidated, or once the sketch was resized.
+ * Must only be used from the render thread.
+ */
+public class LayerCache<K> {
+  /**
+   * Renders the static part of a layer onto the given graphics.
+   * The graphics are either an offscreen buffer, or the canvas itself when layers are not cached.
+   */
+  public interface Renderer<K> {
+    void render(K key, PGraphics layer);
+  }
+
+  /**
+   * Represents a rendered layer, and the rectangle of the canvas it covers.
+   */
+  private final static class Layer {
+    private final PGraphics graphics;
+    private final int x;
+    private final int y;
+
+    private Layer(PGraphics graphics, int x, int y) {
+      this.graphics = graphics;
+      this.x = x;
+      this.y = y;
+    }
+  }
+
+  private final PApplet applet;
+  private final Renderer<K> renderer;
+  private final Map<K, Layer> layers;
+  //the sketch size the layers were rendered for
+  private int sketchWidth;
+  private int sketchHeight;
+  private int renders;
+
+  /**
+   * Constructs an empty LayerCache.
+   * @param applet the applet whose canvas the layers are drawn onto
+   * @param renderer renders the static part of a layer
+   */
+  public LayerCache(PApplet applet, Renderer<K> renderer) {
+    this.applet = applet;
+    this.renderer = renderer;
+    this.layers = new HashMap<>();
+  }
+
+  /**
+   * Draws the layer of the given key onto the canvas, rendering it first if it is not in the cache
+   * (or if it was rendered for another rectangle).
+   * @param key the key of the layer
+   * @param x the x coordinate of the top left corner of the rectangle covered by the layer
+   * @param y the y coordinate of the top left corner of the rectangle covered by the layer
+   * @param width the width of the rectangle covered by the layer
+   * @param height the height of the rectangle covered by the layer
+   */
+  public void draw(K key, int x, int y, int width, int height) {
+    if (this.applet.width != this.sketchWidth || this.applet.height != this.sketchHeight) {
+      invalidateAll();
+      this.sketchWidth = this.applet.width;
+      this.sketchHeight = this.applet.height;
+    }
+    Layer layer = this.layers.get(key);
+    if (layer == null || layer.x != x || layer.y != y
+        || layer.graphics.width != width || layer.graphics.height != height) {
+      layer = render(key, x, y, width, height);
+      this.layers.put(key, layer);
+    }
+    this.applet.pushStyle();
+    this.applet.imageMode(PConstants.CORNER);
+    this.applet.image(layer.graphics, layer.x, layer.y);
+    this.applet.popStyle();
+  }
+
+  /**
+   * Renders the layer of the given key into a new offscreen buffer covering the given rectangle.
+   */
+  private Layer render(K key, int x, int y, int width, int height) {
+    PGraphics graphics = this.applet.createGraphics(width, height);
+    graphics.beginDraw();
+    //the renderer draws in canvas coordinates
+    graphics.translate(-x, -y);
+    this.renderer.render(key, graphics);
+    graphics.endDraw();
+    this.renders++;
+    return new Layer(graphics, x, y);
+  }
+
+  /**
+   * Removes the layer of the given key, so that it is rendered again the next time it is drawn
+   * (e.g. after what it shows changed).
+   * @param key the key of the layer
+   */
+  public void invalidate(K key) {
+    this.layers.remove(key);
+  }
+
+  /**
+   * Removes all layers, so that each one is rendered again the next time it is drawn.
+   */
+  public void invalidateAll() {
+    this.layers.clear();
+  }
+
+  /**
+   * Returns the number of layers currently in the cache.
+   * @return the number of cached layers
+   */
+  public int size() {
+    return this.layers.size();
+  }
+
+  /**
+   * Returns the number of times a layer was rendered.
+   * @return the number of renders
+   */
+  public int getRenders() {
+    return this.renders;
+  }
+}
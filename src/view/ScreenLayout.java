@@ -0,0 +1,161 @@
+package view;
+
+/**
+ * Represents the layout of one screen: the rectangles of every button and answer option row on it.
+ * A layout is built once per game state (and question), and then used both to draw the elements
+ * and to find the element under the mouse, so that the hover state that is drawn and the element that is
+ * clicked can never disagree, and no geometry has to be computed again at every frame.
+ *
+ * Each element is an "area", identified by its index in the layout (in the order it was added).
+ * The rectangles are given by their center, like with rectMode(CENTER), and include their edges.
+ */
+public class ScreenLayout {
+  /**
+   * Represents the kinds of elements on a screen.
+   */
+  public enum Element {
+    SIMPLE_BUTTON, VISUAL_BUTTON, START_BUTTON, RESET_BUTTON, NEXT_BUTTON, RESET_CANCEL_BUTTON, RESET_CONFIRM_BUTTON,
+    ANS_OPT_ROW;
+  }
+
+  //the area index returned when there is no area
+  public final static int NONE = -1;
+
+  private final Element[] elements;
+  private final int[] rowIdxs;
+  private final float[] centerXs;
+  private final float[] centerYs;
+  private final float[] widths;
+  private final float[] heights;
+  private int size;
+
+  /**
+   * Constructs an empty ScreenLayout.
+   * @param capacity the maximum number of areas
+   */
+  public ScreenLayout(int capacity) {
+    this.elements = new Element[capacity];
+    this.rowIdxs = new int[capacity];
+    this.centerXs = new float[capacity];
+    this.centerYs = new float[capacity];
+    this.widths = new float[capacity];
+    this.heights = new float[capacity];
+  }
+
+  /**
+   * Adds a button to this layout.
+   * @param element the button
+   * @param centerX the x coordinate of the button's center
+   * @param centerY the y coordinate of the button's center
+   * @param width the width of the button
+   * @param height the height of the button
+   * @return the area index of the button
+   */
+  public int addButton(Element element, float centerX, float centerY, float width, float height) {
+    return add(element, NONE, centerX, centerY, width, height);
+  }
+
+  /**
+   * Adds an answer option row to this layout.
+   * @param rowIdx the index of the answer option
+   * @param centerX the x coordinate of the row's center
+   * @param centerY the y coordinate of the row's center
+   * @param width the width of the row
+   * @param height the height of the row
+   * @return the area index of the row
+   */
+  public int addAnsOptRow(int rowIdx, float centerX, float centerY, float width, float height) {
+    return add(Element.ANS_OPT_ROW, rowIdx, centerX, centerY, width, height);
+  }
+
+  private int add(Element element, int rowIdx, float centerX, float centerY, float width, float height) {
+    if (this.size == this.elements.length) {
+      throw new IllegalStateException("screen layout is full");
+    }
+    int area = this.size++;
+    this.elements[area] = element;
+    this.rowIdxs[area] = rowIdx;
+    this.centerXs[area] = centerX;
+    this.centerYs[area] = centerY;
+    this.widths[area] = width;
+    this.heights[area] = height;
+    return area;
+  }
+
+  /**
+   * Returns the area at the given point.
+   * @param x the x coordinate of the point
+   * @param y the y coordinate of the point
+   * @return the area index, or NONE if there is no area at the given point
+   */
+  public int hitTest(float x, float y) {
+    for (int area = 0; area < this.size; area++) {
+      if (Math.abs(x - this.centerXs[area]) <= this.widths[area] / 2
+          && Math.abs(y - this.centerYs[area]) <= this.heights[area] / 2) {
+        return area;
+      }
+    }
+    return NONE;
+  }
+
+  /**
+   * Returns the area of the given button.
+   * @param element the button
+   * @return the area index, or NONE if the button is not on this screen
+   */
+  public int find(Element element) {
+    for (int area = 0; area < this.size; area++) {
+      if (this.elements[area] == element) {
+        return area;
+      }
+    }
+    return NONE;
+  }
+
+  /**
+   * Returns whether the given area is the given element.
+   * @param area the area index, or NONE
+   * @param element the element
+   * @return true if the area is the element
+   */
+  public boolean is(int area, Element element) {
+    return area != NONE && this.elements[area] == element;
+  }
+
+  /**
+   * Returns the number of areas in this layout.
+   * @return the number of areas
+   */
+  public int size() {
+    return this.size;
+  }
+
+  public Element getElement(int area) {
+    return this.elements[area];
+  }
+
+  /**
+   * Returns the index of the answer option of the given area.
+   * @param area the area index
+   * @return the index of the answer option, or NONE if the area is not an answer option row
+   */
+  public int getAnsOptIdx(int area) {
+    return this.rowIdxs[area];
+  }
+
+  public float getCenterX(int area) {
+    return this.centerXs[area];
+  }
+
+  public float getCenterY(int area) {
+    return this.centerYs[area];
+  }
+
+  public float getWidth(int area) {
+    return this.widths[area];
+  }
+
+  public float getHeight(int area) {
+    return this.heights[area];
+  }
+}
@@ -0,0 +1,189 @@
+package view;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represents a cache of wrapped texts, keyed by the id of the text (e.g. the question set id), the text size
+ * and the width of the box the text is wrapped into.
+ * Texts are wrapped at word boundaries using the real widths of the glyphs (measured with the given Measurer),
+ * only the first time they are asked for, and the resulting lines are reused by every later frame.
+ * Asking for the same text as the previous call (e.g. the current question, at every frame) does not allocate.
+ *
+ * Only the most recently used layouts are kept, so that playing through a large bank does not grow the cache.
+ * Must only be used from the render thread.
+ */
+public class TextLayoutCache {
+  //the default number of layouts kept
+  public final static int DEFAULT_CAPACITY = 256;
+
+  /**
+   * Measures the width of a text, at the current text size (e.g. PApplet.textWidth()).
+   */
+  public interface Measurer {
+    float width(String text);
+  }
+
+  /**
+   * Represents the key of a layout.
+   */
+  private final static class Key {
+    private final int id;
+    private final int textSize;
+    private final int boxWidth;
+
+    private Key(int id, int textSize, int boxWidth) {
+      this.id = id;
+      this.textSize = textSize;
+      this.boxWidth = boxWidth;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return this.id == other.id && this.textSize == other.textSize && this.boxWidth == other.boxWidth;
+    }
+
+    @Override
+    public int hashCode() {
+      return (((this.id * 31) + this.textSize) * 31) + this.boxWidth;
+    }
+  }
+
+  private final Measurer measurer;
+  private final Map<Key, String> layouts;
+  //the previous lookup, which is looked up again at every frame
+  private int lastId;
+  private int lastTextSize;
+  private int lastBoxWidth;
+  private String lastLayout;
+  private int hits;
+  private int misses;
+
+  /**
+   * Constructs a TextLayoutCache with the default capacity.
+   * @param measurer measures the width of a text, at the current text size
+   */
+  public TextLayoutCache(Measurer measurer) {
+    this(measurer, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs a TextLayoutCache.
+   * @param measurer measures the width of a text, at the current text size
+   * @param capacity the number of layouts kept
+   */
+  public TextLayoutCache(Measurer measurer, int capacity) {
+    this.measurer = measurer;
+    //access-ordered, removing the least recently used layout once the cache is full
+    this.layouts = new LinkedHashMap<Key, String>(capacity * 2, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+        return this.size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Returns the given text wrapped into lines that fit the given box width, separated by new line characters.
+   * If the layout is not in the cache yet, the text is measured with the Measurer, so the text size must already
+   * be set to the given one.
+   * @param id the id of the text (texts with the same id must be the same)
+   * @param text the text
+   * @param textSize the current text size
+   * @param boxWidth the width of the box to wrap the text into
+   * @return the wrapped text
+   */
+  public String get(int id, String text, int textSize, int boxWidth) {
+    if (this.lastLayout != null && id == this.lastId && textSize == this.lastTextSize && boxWidth == this.lastBoxWidth) {
+      this.hits++;
+      return this.lastLayout;
+    }
+    Key key = new Key(id, textSize, boxWidth);
+    String layout = this.layouts.get(key);
+    if (layout == null) {
+      this.misses++;
+      layout = wrap(text, boxWidth, this.measurer);
+      this.layouts.put(key, layout);
+    }
+    else {
+      this.hits++;
+    }
+    this.lastId = id;
+    this.lastTextSize = textSize;
+    this.lastBoxWidth = boxWidth;
+    this.lastLayout = layout;
+    return layout;
+  }
+
+  /**
+   * Wraps the given text into lines that fit the given box width, breaking lines between words.
+   * A word that is wider than the box on its own is broken between characters.
+   * @param text the text
+   * @param boxWidth the width of the box to wrap the text into
+   * @param measurer measures the width of a text, at the current text size
+   * @return the wrapped text, with the lines separated by new line characters
+   */
+  public static String wrap(String text, float boxWidth, Measurer measurer) {
+    StringBuilder wrapped = new StringBuilder(text.length() + 8);
+    StringBuilder line = new StringBuilder();
+    for (String word : text.trim().split("\\s+")) {
+      if (line.length() > 0 && measurer.width(line + " " + word) <= boxWidth) {
+        line.append(' ').append(word);
+        continue;
+      }
+      //the word starts a new line
+      if (line.length() > 0) {
+        wrapped.append(line).append('\n');
+        line.setLength(0);
+      }
+      String rest = word;
+      while (rest.length() > 1 && measurer.width(rest) > boxWidth) {
+        int fit = 1;
+        while (fit < rest.length() - 1 && measurer.width(rest.substring(0, fit + 1)) <= boxWidth) {
+          fit++;
+        }
+        wrapped.append(rest, 0, fit).append('\n');
+        rest = rest.substring(fit);
+      }
+      line.append(rest);
+    }
+    wrapped.append(line);
+    return wrapped.toString();
+  }
+
+  /**
+   * Removes all layouts from the cache (e.g. after the font changed). The counters are kept.
+   */
+  public void clear() {
+    this.layouts.clear();
+    this.lastLayout = null;
+  }
+
+  /**
+   * Returns the number of layouts currently in the cache.
+   * @return the number of cached layouts
+   */
+  public int size() {
+    return this.layouts.size();
+  }
+
+  /**
+   * Returns the number of lookups that were found in the cache.
+   * @return the number of hits
+   */
+  public int getHits() {
+    return this.hits;
+  }
+
+  /**
+   * Returns the number of lookups that had to wrap the text.
+   * @return the number of misses
+   */
+  public int getMisses() {
+    return this.misses;
+  }
+}
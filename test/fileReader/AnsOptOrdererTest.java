@@ -0,0 +1,134 @@
+package fileReader;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the AnsOptOrderer: ordering answer options added in any order, and rejecting invalid ids.
+ */
+public class AnsOptOrdererTest {
+  private final static int NUM_OF_MANY_OPTS = 100_000;
+
+  @Test
+  public void ordersAlreadyOrderedIds() {
+    AnsOptOrderer orderer = new AnsOptOrderer("a");
+    orderer.reset(0);
+    orderer.add("0", "zero");
+    orderer.add("1", "one");
+    orderer.add("2", "two");
+    assertArrayEquals(new String[]{"zero", "one", "two"}, orderer.toOrderedArray());
+  }
+
+  @Test
+  public void ordersReversedIds() {
+    AnsOptOrderer orderer = new AnsOptOrderer("a");
+    orderer.reset(0);
+    orderer.add("3", "three");
+    orderer.add("2", "two");
+    orderer.add("1", "one");
+    orderer.add("0", "zero");
+    assertArrayEquals(new String[]{"zero", "one", "two", "three"}, orderer.toOrderedArray());
+  }
+
+  @Test
+  public void ordersShuffledIds() {
+    AnsOptOrderer orderer = new AnsOptOrderer("aImg");
+    orderer.reset(0);
+    orderer.add(" 2 ", "two");
+    orderer.add("0", "zero");
+    orderer.add("3", "three");
+    orderer.add("1", "one");
+    assertArrayEquals(new String[]{"zero", "one", "two", "three"}, orderer.toOrderedArray());
+  }
+
+  @Test
+  public void ordersManyShuffledIds() {
+    int[] ids = new int[NUM_OF_MANY_OPTS];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = i;
+    }
+    Random random = new Random(42);
+    for (int i = ids.length - 1; i > 0; i--) {
+      int swap = random.nextInt(i + 1);
+      int tmp = ids[i];
+      ids[i] = ids[swap];
+      ids[swap] = tmp;
+    }
+
+    //starts small, so that the orderer has to grow
+    AnsOptOrderer orderer = new AnsOptOrderer("a", 1);
+    orderer.reset(0);
+    for (int id : ids) {
+      orderer.add(id, Integer.toString(id));
+    }
+    assertEquals(NUM_OF_MANY_OPTS, orderer.size());
+    String[] ordered = orderer.toOrderedArray();
+    assertEquals(NUM_OF_MANY_OPTS, ordered.length);
+    for (int i = 0; i < ordered.length; i++) {
+      assertEquals(Integer.toString(i), ordered[i]);
+    }
+  }
+
+  @Test
+  public void resetsBetweenQuestionSets() {
+    AnsOptOrderer orderer = new AnsOptOrderer("a");
+    orderer.reset(0);
+    orderer.add("1", "one");
+    orderer.add("0", "zero");
+    orderer.toOrderedArray();
+
+    orderer.reset(1);
+    assertEquals(0, orderer.size());
+    orderer.add("0", "only");
+    assertArrayEquals(new String[]{"only"}, orderer.toOrderedArray());
+  }
+
+  @Test
+  public void rejectsDuplicatedId() {
+    AnsOptOrderer orderer = new AnsOptOrderer("a");
+    orderer.reset(7);
+    orderer.add("0", "zero");
+    orderer.add("1", "one");
+    orderer.add("1", "one again");
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, orderer::toOrderedArray);
+    assertTrue(e.getMessage().contains("questionSet 7"), e.getMessage());
+    assertTrue(e.getMessage().contains("id 1 is duplicated"), e.getMessage());
+  }
+
+  @Test
+  public void rejectsGappedIds() {
+    AnsOptOrderer orderer = new AnsOptOrderer("a");
+    orderer.reset(3);
+    orderer.add("0", "zero");
+    orderer.add("1", "one");
+    orderer.add("3", "three");
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, orderer::toOrderedArray);
+    assertTrue(e.getMessage().contains("id 3 is out of range"), e.getMessage());
+  }
+
+  @Test
+  public void rejectsNegativeId() {
+    AnsOptOrderer orderer = new AnsOptOrderer("a");
+    orderer.reset(0);
+    orderer.add("-1", "minus one");
+    orderer.add("0", "zero");
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, orderer::toOrderedArray);
+    assertTrue(e.getMessage().contains("id -1 is out of range"), e.getMessage());
+  }
+
+  @Test
+  public void rejectsNonNumericId() {
+    AnsOptOrderer orderer = new AnsOptOrderer("aImg");
+    orderer.reset(5);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> orderer.add("one", "one"));
+    assertTrue(e.getMessage().contains("<aImg>"), e.getMessage());
+    assertTrue(e.getMessage().contains("non-numeric id \"one\""), e.getMessage());
+    assertThrows(IllegalArgumentException.class, () -> orderer.add((String) null, "none"));
+  }
+}